@@ -5,9 +5,26 @@ find nl -type f ! -name "*.java" > out/resources.txt
 
 
 javac -d ./out/target @out/sources.txt
-rsync -a . --files-from=out/resources.txt out/target
+tar -cf - -T out/resources.txt | tar -xf - -C out/target || exit
 cp logging.properties out/target
 
 cd out/target || exit
 jar cfm ../aoc2022.jar ../../Manifest.txt ./*
 cd ../..
+
+# class data sharing archive of the classes loaded by a training run on the examples (except the slow ones), used by run.sh.
+# The archive only maps when the jar has the same path as in run.sh, so the run is done from here; the log file it writes is removed
+# and an existing one is put back. A run that fails, or an archive that does not map (-Xshare:on), leaves no archive.
+[ -f aoc2022.log ] && mv aoc2022.log out/aoc2022.log.kept
+if ! java -XX:ArchiveClassesAtExit=./out/aoc2022.jsa -jar ./out/aoc2022.jar '(?!Day17#SECOND|Day19).*' EXAMPLE --no-cache > out/training.txt 2>&1 \
+    || grep -q -E 'SEVERE|EXCEPTION' out/training.txt; then
+  rm -f out/aoc2022.jsa
+  echo "Training run failed, no class data sharing archive created; see out/training.txt:" >&2
+  grep -E 'SEVERE|EXCEPTION' out/training.txt | head -n 10 >&2
+elif ! java -Xshare:on -XX:SharedArchiveFile=./out/aoc2022.jsa -jar ./out/aoc2022.jar 'Day01#FIRST' EXAMPLE --no-cache > out/sharing.txt 2>&1; then
+  rm -f out/aoc2022.jsa
+  echo "Class data sharing archive cannot be mapped, removed it:" >&2
+  head -n 5 out/sharing.txt >&2
+fi
+rm -f aoc2022.log
+[ -f out/aoc2022.log.kept ] && mv out/aoc2022.log.kept aoc2022.log
@@ -0,0 +1,80 @@
+package nl.q8p.aoc2022;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.Arrays;
+import java.util.Objects;
+
+// Bytes allocated by the current thread plus, optionally, the common pool workers, which do the work of parallel streams.
+// Allocations of threads that die before the run ends are lost.
+final class Allocations {
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final String COMMON_POOL_WORKER = "ForkJoinPool.commonPool-worker-";
+
+    private final long[] workers;
+    private final long[] workersBefore;
+    private final long currentBefore;
+
+    private Allocations(long[] workers, long[] workersBefore, long currentBefore) {
+        this.workers = workers;
+        this.workersBefore = workersBefore;
+        this.currentBefore = currentBefore;
+    }
+
+    static boolean isSupported() {
+        if (!THREADS.isThreadAllocatedMemorySupported()) {
+            return false;
+        }
+        if (!THREADS.isThreadAllocatedMemoryEnabled()) {
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+
+        return true;
+    }
+
+    static Allocations start(boolean commonPool) {
+        final var workers = commonPool ? commonPoolWorkers() : new long[0];
+        final var workersBefore = THREADS.getThreadAllocatedBytes(workers);
+
+        // read last, so the bookkeeping above is not accounted
+        return new Allocations(workers, workersBefore, THREADS.getCurrentThreadAllocatedBytes());
+    }
+
+    long stop() {
+        // read first, so the bookkeeping below is not accounted
+        var total = THREADS.getCurrentThreadAllocatedBytes() - currentBefore;
+
+        final var workersNow = workers.length == 0 ? workers : commonPoolWorkers();
+        final var workersAfter = THREADS.getThreadAllocatedBytes(workersNow);
+
+        for (var i = 0; i < workersNow.length; i++) {
+            if (workersAfter[i] >= 0) {
+                total += workersAfter[i] - before(workersNow[i]);
+            }
+        }
+
+        return total;
+    }
+
+    private long before(long worker) {
+        for (var i = 0; i < workers.length; i++) {
+            if (workers[i] == worker) {
+                return Math.max(0, workersBefore[i]);
+            }
+        }
+
+        return 0;
+    }
+
+    private static long[] commonPoolWorkers() {
+        final var current = Thread.currentThread().getId();
+
+        return Arrays.stream(THREADS.getThreadInfo(THREADS.getAllThreadIds(), 0))
+            .filter(Objects::nonNull)
+            .filter(info -> info.getThreadId() != current && info.getThreadName().startsWith(COMMON_POOL_WORKER))
+            .mapToLong(ThreadInfo::getThreadId)
+            .toArray();
+    }
+}
@@ -0,0 +1,150 @@
+package nl.q8p.aoc2022;
+
+import nl.q8p.aoc2022.Assignment.Run;
+
+import nl.q8p.aoc2022.utils.Lines;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+// Answers on disk, one file per SHA-256 of day, assignment type, run, the code and the input. The code is fingerprinted by the class files
+// of the day's package (with its nested, anonymous and lambda holding classes), of the utils package and of this package, which holds the
+// assignment interfaces and input handling a day builds on. Code elsewhere that a day calls (such as the JDK) is not part of the key;
+// use --clear-cache after changing that.
+final class AnswerCache {
+    private static final Logger LOG = Logger.getLogger(AnswerCache.class.getName());
+
+    private static final Map<String, byte[]> FINGERPRINTS = new ConcurrentHashMap<>();
+
+    private final Path directory;
+
+    private AnswerCache(Path directory) {
+        this.directory = directory;
+    }
+
+    // --cache uses the default directory, --cache=DIR the given one
+    static Path directory(Arguments arguments) {
+        final var directory = arguments.string("cache");
+
+        return directory == null || arguments.flag("cache") ? Path.of(System.getProperty("user.home"), ".cache", "aoc2022") : Path.of(directory);
+    }
+
+    static AnswerCache of(Arguments arguments) {
+        return new AnswerCache(directory(arguments));
+    }
+
+    static void clear(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try (var files = Files.list(directory)) {
+            final var deleted = files.filter(file -> file.getFileName().toString().endsWith(".answer")).mapToInt(file -> {
+                try {
+                    Files.delete(file);
+                    return 1;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).sum();
+
+            LOG.info(() -> "Cleared " + deleted + " cached answers from " + directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    Optional<String> get(DayRunner dayRunner, Run run, Input input) {
+        try {
+            return Optional.of(Files.readString(file(dayRunner, run, input), StandardCharsets.UTF_8));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            LOG.warning(() -> "Cannot read cached answer: " + e);
+            return Optional.empty();
+        }
+    }
+
+    void put(DayRunner dayRunner, Run run, Input input, String answer) {
+        try {
+            Files.createDirectories(directory);
+
+            final var file = file(dayRunner, run, input);
+            final var temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            Files.writeString(temporary, answer, StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warning(() -> "Cannot cache answer: " + e);
+        }
+    }
+
+    private Path file(DayRunner dayRunner, Run run, Input input) {
+        final var digest = sha256();
+        digest.update((dayRunner.key() + "#" + run + "\n").getBytes(StandardCharsets.UTF_8));
+        for (var code : List.of(dayRunner.day().getClass(), Lines.class, AnswerCache.class)) {
+            digest.update(FINGERPRINTS.computeIfAbsent(code.getPackageName(), packageName -> fingerprint(code)));
+        }
+        digest.update(input.bytes());
+
+        return directory.resolve(HexFormat.of().formatHex(digest.digest()) + ".answer");
+    }
+
+    // the class files directly in the package of the given class, from the directory or jar it was loaded from
+    private static byte[] fingerprint(Class<?> type) {
+        final var digest = sha256();
+        final var packageDirectory = type.getPackageName().replace('.', '/');
+
+        try {
+            final var location = Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+            if (Files.isDirectory(location)) {
+                update(digest, location.resolve(packageDirectory));
+            } else {
+                try (var jar = FileSystems.newFileSystem(location)) {
+                    update(digest, jar.getPath(packageDirectory));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return digest.digest();
+    }
+
+    private static void update(MessageDigest digest, Path packageDirectory) throws IOException {
+        final List<Path> classFiles;
+        try (var files = Files.list(packageDirectory)) {
+            classFiles = files.filter(file -> file.getFileName().toString().endsWith(".class")).sorted().toList();
+        }
+
+        for (var classFile : classFiles) {
+            digest.update(classFile.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+            digest.update(Files.readAllBytes(classFile));
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
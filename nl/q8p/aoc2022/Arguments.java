@@ -0,0 +1,93 @@
+package nl.q8p.aoc2022;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+record Arguments(List<String> positional, Map<String, String> options) {
+
+    static final String USAGE = "usage: ./run.sh [assignment-filter] [run-filter] [pre-heat-seconds] [--option=value ...]";
+
+    // an option with a value that cannot be used; Main reports it with the usage instead of a stack trace
+    static final class UsageException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        UsageException(String message) {
+            super(message);
+        }
+    }
+
+    static Arguments parse(String[] args) {
+        final var positional = new ArrayList<String>();
+        final var options = new HashMap<String, String>();
+
+        for (var arg : args) {
+            if (arg.startsWith("--")) {
+                var separator = arg.indexOf('=');
+
+                if (separator == -1) {
+                    options.put(arg.substring(2), "true");
+                } else {
+                    options.put(arg.substring(2, separator), arg.substring(separator + 1));
+                }
+            } else {
+                positional.add(arg);
+            }
+        }
+
+        return new Arguments(List.copyOf(positional), Map.copyOf(options));
+    }
+
+    String positional(int index) {
+        return index < positional.size() ? positional.get(index) : null;
+    }
+
+    String string(String name) {
+        return options.get(name);
+    }
+
+    int integer(String name, int defaultValue) {
+        var value = options.get(name);
+
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new UsageException("--" + name + " needs a whole number, e.g. --" + name + "=10");
+        }
+    }
+
+    // a whole number above 0 that has to be given with the option, e.g. --generate=1000
+    int positive(String name) {
+        var value = integer(name, 0);
+
+        if (value <= 0) {
+            throw new UsageException("--" + name + " needs a whole number above 0, e.g. --" + name + "=1000");
+        }
+
+        return value;
+    }
+
+    double decimal(String name, double defaultValue) {
+        var value = options.get(name);
+
+        try {
+            return value == null ? defaultValue : Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new UsageException("--" + name + " needs a number, e.g. --" + name + "=2.5");
+        }
+    }
+
+    List<String> options(Set<String> excluded) {
+        return options.entrySet().stream()
+            .filter(option -> !excluded.contains(option.getKey()))
+            .map(option -> "--" + option.getKey() + "=" + option.getValue())
+            .sorted()
+            .toList();
+    }
+
+    boolean flag(String name) {
+        return Boolean.parseBoolean(options.getOrDefault(name, "false"));
+    }
+}
@@ -0,0 +1,10 @@
+package nl.q8p.aoc2022;
+
+// Thrown by AssignmentContext.checkCancelled to stop an assignment that ran out of time or was interrupted.
+public class AssignmentCancelledException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public AssignmentCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,76 @@
+package nl.q8p.aoc2022;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+// Handed to a running assignment so it can report how far it is and stop when its deadline has passed or its thread is interrupted.
+// Long loops call progress and checkCancelled every so many iterations; both are cheap, but not free enough for every iteration.
+public final class AssignmentContext {
+    private static final long REPORT_INTERVAL_NANOS = SECONDS.toNanos(10);
+
+    // for assignments that are run without a runner, e.g. through the plain Assignment interface
+    static final AssignmentContext NONE = new AssignmentContext(0, message -> {});
+
+    private final long start = System.nanoTime();
+    private final long timeoutNanos;
+    private final Consumer<String> reporter;
+
+    private double fraction = Double.NaN;
+    private long nextReport = start + REPORT_INTERVAL_NANOS;
+
+    AssignmentContext(long timeoutNanos, Consumer<String> reporter) {
+        this.timeoutNanos = timeoutNanos;
+        this.reporter = reporter;
+    }
+
+    // done out of total units of work; reported with the throughput in units per second at most every 10 seconds
+    public void progress(long done, long total) {
+        fraction = (double) done / total;
+
+        final var now = System.nanoTime();
+        if (now - nextReport < 0) {
+            return;
+        }
+        nextReport = now + REPORT_INTERVAL_NANOS;
+
+        final var seconds = (now - start) / 1e9;
+        final var perSecond = done / seconds;
+
+        reporter.accept(String.format(Locale.US, "%s after %.0f s, %.0f per s, about %s left",
+            asPercentage(fraction), seconds, perSecond, asTime((total - done) / perSecond)));
+    }
+
+    public void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new AssignmentCancelledException("interrupted" + progress());
+        }
+
+        if (timeoutNanos > 0 && System.nanoTime() - start > timeoutNanos) {
+            throw new AssignmentCancelledException("deadline of " + timeoutNanos / SECONDS.toNanos(1) + " s passed" + progress());
+        }
+    }
+
+    private String progress() {
+        return Double.isNaN(fraction) ? "" : " at " + asPercentage(fraction);
+    }
+
+    private static String asPercentage(double fraction) {
+        return String.format(Locale.US, fraction > 0 && fraction < 0.001 ? "%.2g%%" : "%.1f%%", fraction * 100);
+    }
+
+    private static String asTime(double seconds) {
+        if (Double.isInfinite(seconds) || Double.isNaN(seconds)) {
+            return "forever";
+        } else if (seconds < 120) {
+            return String.format(Locale.US, "%.0f s", seconds);
+        } else if (seconds < 2 * 3600) {
+            return String.format(Locale.US, "%.0f min", seconds / 60);
+        } else if (seconds < 2 * 86400) {
+            return String.format(Locale.US, "%.0f h", seconds / 3600);
+        } else {
+            return String.format(Locale.US, "%.0f days", seconds / 86400);
+        }
+    }
+}
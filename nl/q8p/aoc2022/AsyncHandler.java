@@ -0,0 +1,220 @@
+package nl.q8p.aoc2022;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+// Hands log records to a background thread that publishes them to the configured handlers, so logging threads never wait for console or
+// file I/O. Records that do not fit in the bounded queue are dropped and counted; the count is logged by the background thread.
+//
+// Configured in logging.properties:
+//   nl.q8p.aoc2022.AsyncHandler.handlers = handler classes to publish to
+//   nl.q8p.aoc2022.AsyncHandler.capacity = queue size, rounded up to a power of two (default 8192)
+//   nl.q8p.aoc2022.AsyncHandler.level    = records below this level are not queued (default ALL)
+//
+// The caller of a record is not inferred before it is queued, so formats using the source (%2$s) show the background thread's view.
+public final class AsyncHandler extends Handler {
+    private static final long IDLE_PARK_NANOS = MILLISECONDS.toNanos(100);
+
+    private final List<Handler> delegates;
+    private final Ring ring;
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong written = new AtomicLong();
+    private final Thread writer;
+
+    private volatile boolean waiting;
+    private volatile boolean closed;
+
+    public AsyncHandler() {
+        final var manager = LogManager.getLogManager();
+        final var prefix = AsyncHandler.class.getName();
+
+        this.delegates = handlers(manager.getProperty(prefix + ".handlers"));
+        this.ring = new Ring(integer(manager.getProperty(prefix + ".capacity"), 8192));
+
+        final var level = manager.getProperty(prefix + ".level");
+        setLevel(level == null ? Level.ALL : Level.parse(level.trim()));
+
+        this.writer = new Thread(this::write, "log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    private List<Handler> handlers(String names) {
+        final var handlers = new ArrayList<Handler>();
+
+        if (names == null) {
+            return handlers;
+        }
+
+        for (final var name : names.split("[\\s,]+")) {
+            if (name.isEmpty()) {
+                continue;
+            }
+
+            try {
+                handlers.add((Handler) ClassLoader.getSystemClassLoader().loadClass(name).getDeclaredConstructor().newInstance());
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                reportError("Cannot create handler " + name, e, ErrorManager.OPEN_FAILURE);
+            }
+        }
+
+        return handlers;
+    }
+
+    private static int integer(String value, int defaultValue) {
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    @Override
+    public void publish(LogRecord logRecord) {
+        if (closed || !isLoggable(logRecord)) {
+            return;
+        }
+
+        if (!ring.offer(logRecord)) {
+            dropped.increment();
+            return;
+        }
+
+        if (waiting) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void write() {
+        while (true) {
+            final var logRecord = ring.poll();
+
+            if (logRecord != null) {
+                forward(logRecord);
+                written.lazySet(written.get() + 1);
+                continue;
+            }
+
+            reportDropped();
+
+            if (closed && ring.isEmpty()) {
+                return;
+            }
+
+            waiting = true;
+            if (ring.isEmpty() && !closed) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            waiting = false;
+        }
+    }
+
+    private void forward(LogRecord logRecord) {
+        for (final var delegate : delegates) {
+            try {
+                delegate.publish(logRecord);
+            } catch (RuntimeException e) {
+                reportError("Problem publishing log record", e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+    }
+
+    private void reportDropped() {
+        final var count = dropped.sumThenReset();
+
+        if (count > 0) {
+            final var logRecord = new LogRecord(Level.WARNING, "Logging overloaded, dropped " + count + " log records");
+            logRecord.setLoggerName("");
+            forward(logRecord);
+        }
+    }
+
+    // waits until the records published before this call have been written
+    @Override
+    public void flush() {
+        final var target = ring.published();
+
+        while (written.get() < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(MILLISECONDS.toNanos(1));
+        }
+
+        delegates.forEach(Handler::flush);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+
+        try {
+            writer.join(SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        delegates.forEach(Handler::close);
+    }
+
+    // Bounded multi-producer, single-consumer ring buffer. Producers claim a slot by advancing the tail with a CAS and then fill it; the
+    // consumer takes filled slots in order and frees them by advancing the head. A claimed slot that is not filled yet reads as empty.
+    private static final class Ring {
+        private final AtomicReferenceArray<LogRecord> slots;
+        private final int mask;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+
+        Ring(int capacity) {
+            final var size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+            this.slots = new AtomicReferenceArray<>(size);
+            this.mask = size - 1;
+        }
+
+        boolean offer(LogRecord logRecord) {
+            while (true) {
+                final var position = tail.get();
+
+                if (position - head.get() > mask) {
+                    return false;
+                }
+
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set((int) (position & mask), logRecord);
+                    return true;
+                }
+            }
+        }
+
+        // only called by the consumer
+        LogRecord poll() {
+            final var position = head.get();
+            final var index = (int) (position & mask);
+            final var logRecord = slots.get(index);
+
+            if (logRecord == null) {
+                return null;
+            }
+
+            slots.lazySet(index, null);
+            head.lazySet(position + 1);
+
+            return logRecord;
+        }
+
+        boolean isEmpty() {
+            return head.get() == tail.get();
+        }
+
+        long published() {
+            return tail.get();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package nl.q8p.aoc2022;
+
+import nl.q8p.aoc2022.Assignment.Run;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+// Median and spread per Day#AssignmentType and run, one line each: "Day16#SECOND REAL p50 spread count" in nanoseconds.
+// Only REAL runs with at least MIN_SAMPLES samples (--iterations or --measure-seconds) are saved and compared: the example
+// is a single cold run, and a single sample has no spread to tell a regression from noise.
+record Baseline(Map<String, Entry> entries) {
+    private static final Logger LOG = Logger.getLogger(Baseline.class.getName());
+
+    static final int MIN_SAMPLES = 5;
+
+    // the spread used for the noise check is at least this fraction of the baseline median, for timer and scheduling jitter
+    private static final double MIN_RELATIVE_SPREAD = 0.01;
+
+    record Entry(long p50, double spread, int count) {
+    }
+
+    static void save(Path file, List<DayRunner.Result> results) {
+        final var comparable = comparable(results);
+
+        final var lines = new ArrayList<String>();
+        lines.add("# key run p50-nanos spread-nanos count");
+        comparable.stream()
+            .map(result -> key(result) + " " + result.duration().statistics().p50() + " " + Math.round(result.duration().statistics().spread()) + " " + result.duration().statistics().count())
+            .sorted()
+            .forEach(lines::add);
+
+        try {
+            Files.write(file, lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        LOG.info(() -> "Baseline of " + comparable.size() + " runs written to " + file);
+    }
+
+    static Baseline load(Path file) {
+        final var entries = new TreeMap<String, Entry>();
+
+        try {
+            for (var line : Files.readAllLines(file)) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+
+                final var parts = line.trim().split(" +");
+                entries.put(parts[0] + " " + parts[1], new Entry(Long.parseLong(parts[2]), Double.parseDouble(parts[3]), Integer.parseInt(parts[4])));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new Baseline(entries);
+    }
+
+    // A run regresses when its median exceeds the baseline by more than threshold percent
+    // and, unless noise is 0, by more than noise times the combined spread (see Statistics.spread) of both measurements.
+    // Entries of the assignments matching the filter that have no comparable result fail the check, as does comparing nothing.
+    boolean check(List<DayRunner.Result> results, String assignmentFilter, double thresholdPercentage, double noise) {
+        var regressions = 0;
+        var compared = 0;
+
+        final var comparable = comparable(results);
+        final var measured = comparable.stream().map(Baseline::key).collect(Collectors.toSet());
+        final var missing = entries.keySet().stream()
+            .filter(key -> assignmentFilter == null || key.substring(0, key.indexOf(' ')).matches(assignmentFilter))
+            .filter(key -> !measured.contains(key))
+            .toList();
+
+        missing.forEach(key -> LOG.severe(() -> "MISSING " + key + ": in the baseline, but not measured"));
+
+        for (var result : comparable) {
+            final var baseline = entries.get(key(result));
+            if (baseline == null) {
+                continue;
+            }
+            compared++;
+
+            final var statistics = result.duration().statistics();
+            final var difference = statistics.p50() - baseline.p50();
+            final var percentage = 100.0 * difference / Math.max(1, baseline.p50());
+            final var combinedSpread = Math.max(MIN_RELATIVE_SPREAD * baseline.p50(),
+                Math.sqrt(baseline.spread() * baseline.spread() + statistics.spread() * statistics.spread()));
+
+            final var message = key(result) + ": p50 " + Statistics.asMs(statistics.p50()) + " ms vs baseline " + Statistics.asMs(baseline.p50()) + " ms"
+                + " (" + String.format(Locale.US, "%+.1f", percentage) + "%)";
+
+            if (percentage > thresholdPercentage && difference > noise * combinedSpread) {
+                regressions++;
+                LOG.severe(() -> "REGRESSION " + message);
+            } else {
+                LOG.info(() -> message);
+            }
+        }
+
+        final var total = compared;
+        final var failed = regressions;
+        LOG.info(() -> "Compared " + total + " runs against the baseline (threshold " + thresholdPercentage + "%, noise " + noise + "x spread): " + failed + " regressed"
+            + (missing.isEmpty() ? "" : ", " + missing.size() + " missing"));
+
+        return regressions == 0 && missing.isEmpty() && compared > 0;
+    }
+
+    private static List<DayRunner.Result> comparable(List<DayRunner.Result> results) {
+        final var comparable = new ArrayList<DayRunner.Result>();
+
+        for (var result : results) {
+            if (result.run() != Run.REAL) {
+                continue;
+            }
+
+            final var count = result.duration().statistics().count();
+            if (count < MIN_SAMPLES) {
+                LOG.warning(() -> key(result) + ": skipped for the baseline, " + count + " samples is fewer than " + MIN_SAMPLES + " (use --iterations)");
+                continue;
+            }
+
+            comparable.add(result);
+        }
+
+        return comparable;
+    }
+
+    private static String key(DayRunner.Result result) {
+        return result.key() + " " + result.run();
+    }
+}
@@ -0,0 +1,139 @@
+package nl.q8p.aoc2022;
+
+import nl.q8p.aoc2022.Assignment.Run;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+// Solves every file in a directory with the selected assignments, concurrently on a fixed pool.
+// Answers are written to a tab separated file: assignment, file name, answer (newlines escaped) and nanos.
+// An input that is not solved within the deadline of the DayRunner is interrupted and written as an error.
+// While it runs, metrics per assignment are available over JMX (see DayMetrics).
+record Batch(Path directory, Path output, int threads) {
+    private static final Logger LOG = Logger.getLogger(Batch.class.getName());
+
+    private record Answer(Path file, String answer, long nanos, Exception exception) {
+        String line(DayRunner dayRunner) {
+            return String.join("\t", dayRunner.key(), file.getFileName().toString(), exception == null ? answer.replace("\n", "\\n") : "ERROR " + exception, Long.toString(nanos));
+        }
+    }
+
+    static Batch of(Arguments arguments) {
+        final var directory = arguments.string("batch");
+
+        return directory == null ? null : new Batch(
+            Path.of(directory),
+            Path.of(arguments.string("output") == null ? "answers.tsv" : arguments.string("output")),
+            arguments.integer("threads", Runtime.getRuntime().availableProcessors())
+        );
+    }
+
+    void run(List<DayRunner> dayRunners) {
+        final List<Path> files;
+        try (var listing = Files.list(directory)) {
+            files = listing.filter(Files::isRegularFile).sorted().toList();
+
+            Files.deleteIfExists(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        final var executor = Executors.newFixedThreadPool(threads);
+        Benchmark.concurrent(threads > 1);
+        try {
+            for (var dayRunner : dayRunners) {
+                run(dayRunner, files, executor);
+            }
+        } finally {
+            executor.shutdown();
+            Benchmark.concurrent(false);
+        }
+
+        LOG.info(() -> "Answers written to " + output);
+    }
+
+    private void run(DayRunner dayRunner, List<Path> files, ExecutorService executor) {
+        dayRunner.printHeader();
+
+        final var start = System.nanoTime();
+        final var futures = files.stream().map(file -> executor.submit(() -> solve(dayRunner, file))).toList();
+
+        final var answers = new ArrayList<Answer>();
+        try {
+            for (var index = 0; index < futures.size(); index++) {
+                answers.add(answer(dayRunner, files.get(index), futures.get(index)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+
+        final var wallTime = System.nanoTime() - start;
+
+        try {
+            Files.write(output, answers.stream().map(answer -> answer.line(dayRunner)).toList(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        final var failed = answers.stream().filter(answer -> answer.exception() != null).count();
+        final var solved = answers.stream().filter(answer -> answer.exception() == null).mapToLong(Answer::nanos).toArray();
+
+        LOG.info(() -> String.format(Locale.US, "  BATCH     : %d inputs (%d failed) on %d threads in %s ms: %.1f inputs/s",
+            answers.size(), failed, threads, Statistics.asMs(wallTime), answers.size() / (wallTime / 1e9)));
+
+        if (solved.length > 0) {
+            final var latency = Statistics.of(solved);
+
+            LOG.info(() -> "              " + latency.summary());
+            LOG.info(() -> "              " + latency.percentiles());
+        }
+    }
+
+    // The futures are awaited in order on a FIFO pool, so an input has started by the time it is awaited; the deadline counts from then.
+    private static Answer answer(DayRunner dayRunner, Path file, Future<Answer> future) throws InterruptedException, ExecutionException {
+        if (dayRunner.timeoutNanos() == 0) {
+            return future.get();
+        }
+
+        try {
+            return future.get(dayRunner.timeoutNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // interrupting the solver makes AssignmentContext.checkCancelled stop it, which counts as failed in its metrics
+            future.cancel(true);
+            LOG.warning(() -> dayRunner.key() + " " + file.getFileName() + ": deadline passed");
+
+            return new Answer(file, null, 0, new AssignmentCancelledException("deadline of " + TimeUnit.NANOSECONDS.toSeconds(dayRunner.timeoutNanos()) + " s passed"));
+        }
+    }
+
+    private static Answer solve(DayRunner dayRunner, Path file) {
+        final var metrics = DayMetrics.of(dayRunner);
+
+        try {
+            final var duration = dayRunner.measure(Run.REAL, InputStore.read(file), Benchmark.SINGLE);
+            metrics.record(duration);
+
+            return new Answer(file, duration.result(), duration.nanos(), null);
+        } catch (Exception e) {
+            metrics.failed(e);
+            LOG.warning(() -> dayRunner.key() + " " + file.getFileName() + ": " + e);
+            return new Answer(file, null, 0, e);
+        }
+    }
+}
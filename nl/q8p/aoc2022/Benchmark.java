@@ -0,0 +1,66 @@
+package nl.q8p.aoc2022;
+
+import java.util.function.Function;
+
+record Benchmark(int warmupIterations, long warmupMillis, int iterations, long measureMillis) {
+
+    static final Benchmark SINGLE = new Benchmark(0, 0, 1, 0);
+
+    // Set while assignments are measured concurrently (parallel, batch and server mode). Collections and peak heap are JVM-wide and
+    // the common pool workers serve all assignments, so then GC figures are not measured and allocations only count the measuring thread.
+    private static volatile boolean concurrent;
+
+    static void concurrent(boolean concurrent) {
+        Benchmark.concurrent = concurrent;
+    }
+
+    static Benchmark of(Arguments arguments, int preHeatSeconds) {
+        return new Benchmark(
+            arguments.integer("warmup", 0),
+            (long) (arguments.decimal("warmup-seconds", Math.max(0, preHeatSeconds)) * 1_000L),
+            Math.max(1, arguments.integer("iterations", 1)),
+            (long) (arguments.decimal("measure-seconds", 0) * 1_000L)
+        );
+    }
+
+    boolean isSingle() {
+        return warmupIterations == 0 && warmupMillis == 0 && iterations == 1 && measureMillis == 0;
+    }
+
+    void warmup(Function<Phases, ?> function) {
+        var warmupUntil = System.currentTimeMillis() + warmupMillis;
+
+        for (var i = 0; i < warmupIterations || System.currentTimeMillis() < warmupUntil; i++) {
+            function.apply(new Phases());
+            System.gc();
+        }
+    }
+
+    <T> DayRunner.Duration<T> measure(Function<Phases, T> function) {
+        T result = null;
+        var samples = new Phases.Samples();
+        var allocations = Allocations.isSupported() ? new Phases.Samples() : null;
+        var phases = new Phases();
+        var garbageCollection = concurrent ? null : GarbageCollection.Usage.NONE;
+
+        var measureUntil = System.currentTimeMillis() + measureMillis;
+
+        while (samples.count() < iterations || System.currentTimeMillis() < measureUntil) {
+            var collected = garbageCollection == null ? null : GarbageCollection.start();
+            var allocated = allocations == null ? null : Allocations.start(!concurrent);
+            var start = System.nanoTime();
+            result = function.apply(phases);
+            samples.add(System.nanoTime() - start);
+
+            if (collected != null) {
+                garbageCollection = garbageCollection.plus(collected.stop());
+            }
+
+            if (allocated != null) {
+                allocations.add(allocated.stop());
+            }
+        }
+
+        return new DayRunner.Duration<>(result, samples.statistics(), phases.statistics(), allocations == null ? null : allocations.statistics(), garbageCollection);
+    }
+}
@@ -0,0 +1,14 @@
+package nl.q8p.aoc2022;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public interface BytesAssignment extends Assignment {
+
+    Object run(final Run run, final ByteBuffer input);
+
+    @Override
+    default Object run(final Run run, final String input) {
+        return run(run, ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII)).asReadOnlyBuffer());
+    }
+}
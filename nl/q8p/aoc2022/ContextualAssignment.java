@@ -0,0 +1,11 @@
+package nl.q8p.aoc2022;
+
+public interface ContextualAssignment extends Assignment {
+
+    Object run(final Run run, final String input, final AssignmentContext context);
+
+    @Override
+    default Object run(final Run run, final String input) {
+        return run(run, input, AssignmentContext.NONE);
+    }
+}
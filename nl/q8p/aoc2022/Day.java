@@ -1,8 +1,14 @@
 package nl.q8p.aoc2022;
 
+import java.util.Optional;
+
 public interface Day {
 
     Assignment first();
 
     Assignment second();
+
+    default Optional<Generator> generator() {
+        return Optional.empty();
+    }
 }
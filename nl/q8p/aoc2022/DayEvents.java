@@ -0,0 +1,68 @@
+package nl.q8p.aoc2022;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.Supplier;
+
+final class DayEvents {
+
+    private DayEvents() {
+    }
+
+    @Category({"Advent of Code", "Day"})
+    abstract static class DayEvent extends Event {
+        @Label("Day")
+        String day;
+
+        @Label("Assignment Type")
+        String assignmentType;
+
+        @Label("Run")
+        String run;
+    }
+
+    @Name("nl.q8p.aoc2022.ReadInput")
+    @Label("Read Input")
+    @Description("Loading an input file of a day")
+    static final class ReadInput extends DayEvent {
+        @Label("File")
+        String file;
+    }
+
+    @Name("nl.q8p.aoc2022.Parse")
+    @Label("Parse")
+    @Description("Parsing the input into the model of a phased assignment")
+    static final class Parse extends DayEvent {
+    }
+
+    @Name("nl.q8p.aoc2022.Solve")
+    @Label("Solve")
+    @Description("Solving an assignment, including parsing for assignments that are not phased")
+    static final class Solve extends DayEvent {
+    }
+
+    @Name("nl.q8p.aoc2022.Format")
+    @Label("Format")
+    @Description("Formatting the answer of an assignment")
+    static final class Format extends DayEvent {
+    }
+
+    static <E extends DayEvent, T> T record(E event, DayRunner dayRunner, Assignment.Run run, Supplier<T> function) {
+        event.begin();
+        try {
+            return function.get();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.day = dayRunner.day().getClass().getSimpleName();
+                event.assignmentType = dayRunner.assignmentType().name();
+                event.run = run == null ? null : run.name();
+                event.commit();
+            }
+        }
+    }
+}
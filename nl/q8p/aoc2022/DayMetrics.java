@@ -0,0 +1,195 @@
+package nl.q8p.aoc2022;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+// JMX metrics per assignment. Recording only touches adders and an atomic histogram, so concurrent solvers do not contend on a lock.
+final class DayMetrics implements DayMetricsMXBean {
+    private static final Logger LOG = Logger.getLogger(DayMetrics.class.getName());
+
+    private static final Map<String, DayMetrics> METRICS = new ConcurrentHashMap<>();
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final Histogram latencies = new Histogram();
+    private final AtomicReference<String> lastResult = new AtomicReference<>();
+
+    static DayMetrics of(DayRunner dayRunner) {
+        return METRICS.computeIfAbsent(dayRunner.key(), DayMetrics::register);
+    }
+
+    private static DayMetrics register(String key) {
+        final var metrics = new DayMetrics();
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName("nl.q8p.aoc2022:type=Assignment,name=" + key));
+        } catch (JMException e) {
+            LOG.warning(() -> "Cannot register metrics of " + key + ": " + e);
+        }
+
+        return metrics;
+    }
+
+    void record(DayRunner.Duration<String> duration) {
+        final var nanos = duration.nanos();
+
+        invocations.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        latencies.add(nanos);
+        if (duration.allocations() != null) {
+            allocatedBytes.add(duration.allocations().p50());
+        }
+        lastResult.set(duration.result());
+    }
+
+    void failed(Throwable throwable) {
+        invocations.increment();
+        errors.increment();
+        lastResult.set("ERROR " + throwable);
+    }
+
+    @Override
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getLatencyMeanMs() {
+        final var solved = invocations.sum() - errors.sum();
+
+        return solved == 0 ? 0 : totalNanos.sum() / (double) solved / 1e6;
+    }
+
+    @Override
+    public double getLatencyP50Ms() {
+        return percentile(0.50);
+    }
+
+    @Override
+    public double getLatencyP90Ms() {
+        return percentile(0.90);
+    }
+
+    @Override
+    public double getLatencyP99Ms() {
+        return percentile(0.99);
+    }
+
+    @Override
+    public double getLatencyP999Ms() {
+        return percentile(0.999);
+    }
+
+    // a bucket's upper bound can be above the largest value seen
+    private double percentile(double fraction) {
+        return Math.min(latencies.percentile(fraction), maxNanos.get()) / 1e6;
+    }
+
+    @Override
+    public double getLatencyMaxMs() {
+        return maxNanos.get() / 1e6;
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    @Override
+    public String getLastResult() {
+        return lastResult.get();
+    }
+
+    @Override
+    public void reset() {
+        invocations.reset();
+        errors.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        allocatedBytes.reset();
+        latencies.reset();
+        lastResult.set(null);
+    }
+
+    // Log-linear histogram of nanos: values below 8 have their own bucket, larger values fall in one of 8 buckets per power of two.
+    private static final class Histogram {
+        private static final int SUB_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(index(Long.MAX_VALUE) + 1);
+
+        void add(long nanos) {
+            counts.incrementAndGet(index(Math.max(0, nanos)));
+        }
+
+        private static int index(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+
+            final var exponent = 63 - Long.numberOfLeadingZeros(value);
+            final var sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+
+            return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        // the highest value in the bucket
+        private static long upperBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+
+            final var shift = index / SUB_BUCKETS - 1;
+            final var sub = index % SUB_BUCKETS;
+
+            return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+        }
+
+        long percentile(double fraction) {
+            final var snapshot = new long[counts.length()];
+            var total = 0L;
+            for (var index = 0; index < snapshot.length; index++) {
+                snapshot[index] = counts.get(index);
+                total += snapshot[index];
+            }
+
+            if (total == 0) {
+                return 0;
+            }
+
+            final var rank = (long) Math.ceil(fraction * total);
+            var seen = 0L;
+            for (var index = 0; index < snapshot.length; index++) {
+                seen += snapshot[index];
+                if (seen >= rank) {
+                    return upperBound(index);
+                }
+            }
+
+            return upperBound(snapshot.length - 1);
+        }
+
+        void reset() {
+            for (var index = 0; index < counts.length(); index++) {
+                counts.set(index, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package nl.q8p.aoc2022;
+
+// Live metrics of one assignment in server and batch mode, registered as nl.q8p.aoc2022:type=Assignment,name=DayXX#TYPE.
+// Latencies are in milliseconds; percentiles come from a histogram with buckets of at most 12.5% wide.
+public interface DayMetricsMXBean {
+    long getInvocations();
+
+    long getErrors();
+
+    double getLatencyMeanMs();
+
+    double getLatencyP50Ms();
+
+    double getLatencyP90Ms();
+
+    double getLatencyP99Ms();
+
+    double getLatencyP999Ms();
+
+    double getLatencyMaxMs();
+
+    long getAllocatedBytes();
+
+    String getLastResult();
+
+    void reset();
+}
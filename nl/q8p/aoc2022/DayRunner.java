@@ -3,19 +3,16 @@ package nl.q8p.aoc2022;
 import nl.q8p.aoc2022.Assignment.Run;
 
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.io.StringWriter;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Locale;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
 
-public record DayRunner(Day day, AssignmentType assignmentType) {
+// timeoutNanos is the deadline of each run of the assignment (0 for none), enforced by assignments that check their AssignmentContext
+public record DayRunner(Day day, AssignmentType assignmentType, long timeoutNanos) {
     private static final Logger log = Logger.getLogger(DayRunner.class.getName());
 
     private static final int WIDTH = 70;
@@ -24,47 +21,79 @@ public record DayRunner(Day day, AssignmentType assignmentType) {
         FIRST, SECOND
     }
 
-    void run(List<Run> runs, int preHeatSeconds) {
+    record Result(DayRunner dayRunner, Run run, Duration<String> duration) {
+        String key() {
+            return dayRunner.key();
+        }
+    }
+
+    DayRunner(Day day, AssignmentType assignmentType) {
+        this(day, assignmentType, 0);
+    }
+
+    String key() {
+        return day.getClass().getSimpleName() + "#" + assignmentType.name();
+    }
+
+    // shared holds what this assignment shares with the other one of the day, null for nothing
+    List<Result> run(List<Run> runs, Benchmark benchmark, Generation generation, AnswerCache cache, SharedModels shared) {
         try {
-            printAssignment(
-                switch (assignmentType) {
-                    case FIRST -> day.first();
-                    case SECOND -> day.second();
-                },
-                runs,
-                preHeatSeconds
-            );
+            return printAssignment(assignment(), runs, benchmark, generation, cache, shared);
         } catch (final Exception exception) {
             printException(exception);
+            return List.of();
         }
     }
 
-    private void printHeader(final AssignmentType assignmentType) {
+    Duration<String> measure(Run run, Input input, Benchmark benchmark) {
+        final var assignment = assignment();
+
+        benchmark.warmup(phases -> run(assignment, run, input, phases, null));
+
+        return benchmark.measure(phases -> run(assignment, run, input, phases, null));
+    }
+
+    private Assignment assignment() {
+        return switch (assignmentType) {
+            case FIRST -> day.first();
+            case SECOND -> day.second();
+        };
+    }
+
+    void printHeader() {
         printSeparator();
         log.info(() -> day.getClass().getSimpleName() + " - " + assignmentType);
         printSeparator();
     }
 
-    private void printAssignment(final Assignment assignment, List<Run> runs, final int preHeatSeconds) {
-        printHeader(assignmentType);
+    private List<Result> printAssignment(final Assignment assignment, List<Run> runs, final Benchmark benchmark, final Generation generation, final AnswerCache cache, final SharedModels shared) {
+        printHeader();
         try {
-            final var assignmentData = readAssignmentData(assignmentType);
-
-            run(assignment, runs, assignmentData, preHeatSeconds);
-
+            final var assignmentData = readAssignmentData(assignmentType, generation, shared);
 
+            return run(assignment, runs, assignmentData, benchmark, cache, shared);
         } catch (final IOException e) {
             log.severe(() -> "Cannot read assignment data: " + e.getMessage());
             e.printStackTrace();
+            return List.of();
         }
     }
 
-    private void run(final Assignment assignment, final List<Run> runs, final AssignmentData assignmentData, final int preHeatSeconds) {
+    private List<Result> run(final Assignment assignment, final List<Run> runs, final AssignmentData assignmentData, final Benchmark benchmark, final AnswerCache cache, final SharedModels shared) {
+        final var results = new ArrayList<Result>();
+
         if (runs.contains(Run.EXAMPLE)) {
             try {
-                final var actual = run(() -> assignment.run(Run.EXAMPLE, assignmentData.example).toString());
-                logResult(actual, "EXAMPLE");
-                if (!actual.result.equals(assignmentData.expected)) {
+                final var answer = cachedAnswer(cache, Run.EXAMPLE, assignmentData.example).orElseGet(() -> {
+                    final var actual = Benchmark.SINGLE.measure(phases -> run(assignment, Run.EXAMPLE, assignmentData.example, phases, shared));
+                    logResult(actual, "EXAMPLE");
+                    results.add(new Result(this, Run.EXAMPLE, actual));
+                    cacheAnswer(cache, Run.EXAMPLE, assignmentData.example, actual.result);
+
+                    return actual.result;
+                });
+
+                if (!answer.equals(assignmentData.expected)) {
                     log.info(() -> "  EXPECTING : " + assignmentData.expected);
                 }
             } catch (final Exception exception) {
@@ -73,74 +102,153 @@ public record DayRunner(Day day, AssignmentType assignmentType) {
             }
         }
 
-        if (runs.contains(Run.REAL)) {
+        if (runs.contains(Run.REAL) && cachedAnswer(cache, Run.REAL, assignmentData.real).isEmpty()) {
             try {
-                var maxReRunUntil = System.currentTimeMillis() + preHeatSeconds * 1_000L;
+                // a benchmark measures parsing as well, so it does not use a model shared by the other assignment
+                final var share = benchmark.isSingle() ? shared : null;
 
-                while (System.currentTimeMillis() < maxReRunUntil) {
-                    assignment.run(Run.REAL, assignmentData.real);
-                    System.gc();
-                }
+                benchmark.warmup(phases -> run(assignment, Run.REAL, assignmentData.real, phases, share));
 
-                final var actual = run(() -> assignment.run(Run.REAL, assignmentData.real).toString());
+                final var actual = benchmark.measure(phases -> run(assignment, Run.REAL, assignmentData.real, phases, share));
                 logResult(actual, "REAL");
+                results.add(new Result(this, Run.REAL, actual));
+                cacheAnswer(cache, Run.REAL, assignmentData.real, actual.result);
             } catch (final Exception exception) {
                 log.info(() -> "  REAL     : EXCEPTION: " + exception.getMessage());
                 exception.printStackTrace();
             }
         }
+
+        return results;
+    }
+
+    private String run(final Assignment assignment, final Run run, final Input input, final Phases phases, final SharedModels shared) {
+        final var result = solve(assignment, run, input, phases, shared);
+
+        return DayEvents.record(new DayEvents.Format(), this, run, result::toString);
+    }
+
+    private Object solve(final Assignment assignment, final Run run, final Input input, final Phases phases, final SharedModels shared) {
+        final var context = new AssignmentContext(timeoutNanos, progress -> log.info(() -> "  PROGRESS  : " + key() + " " + run + " " + progress));
+
+        if (assignment instanceof PhasedAssignment<?> phasedAssignment) {
+            return solvePhased(phasedAssignment, run, input, phases, day instanceof SharedModelDay<?> ? shared : null, context);
+        }
+
+        if (assignment instanceof ContextualAssignment contextualAssignment) {
+            return DayEvents.record(new DayEvents.Solve(), this, run, () -> contextualAssignment.run(run, input.string(), context));
+        }
+
+        if (assignment instanceof BytesAssignment bytesAssignment) {
+            return DayEvents.record(new DayEvents.Solve(), this, run, () -> bytesAssignment.run(run, input.bytes()));
+        }
+
+        return DayEvents.record(new DayEvents.Solve(), this, run, () -> assignment.run(run, input.string()));
     }
 
-    private void logResult(Duration<String> duration, String phase) {
+    @SuppressWarnings("unchecked")
+    private <M> Object solvePhased(final PhasedAssignment<M> assignment, final Run run, final Input input, final Phases phases, final SharedModels shared, final AssignmentContext context) {
+        final Supplier<M> parser = () -> DayEvents.record(new DayEvents.Parse(), this, run, () -> assignment.parse(run, input.string()));
+
+        final var model = phases.time("parse", shared != null ? () -> (M) shared.get(run, input, parser::get) : parser);
+
+        return phases.time("solve", () -> DayEvents.record(new DayEvents.Solve(), this, run, () -> assignment.solve(run, model, context)));
+    }
+
+    private Optional<String> cachedAnswer(final AnswerCache cache, final Run run, final Input input) {
+        final var answer = cache == null ? Optional.<String>empty() : cache.get(this, run, input);
+
+        answer.ifPresent(cached -> logAnswer(cached, run.name(), "cached"));
+
+        return answer;
+    }
+
+    private void cacheAnswer(final AnswerCache cache, final Run run, final Input input, final String answer) {
+        if (cache != null) {
+            cache.put(this, run, input, answer);
+        }
+    }
+
+    void logResult(Duration<String> duration, String phase) {
+        var prefex = "  " + phase + " ".repeat(10 - phase.length()) + ": ";
+
+        logAnswer(duration.result, phase, duration.allocatedAndNanosAsMs());
+
+        if (duration.statistics.count() > 1) {
+            var indent = " ".repeat(prefex.length());
+
+            log.info(() -> indent + duration.statistics.summary());
+            log.info(() -> indent + duration.statistics.percentiles());
+        }
+
+        if (!duration.phases.isEmpty()) {
+            var indent = " ".repeat(prefex.length());
+            var phases = new StringBuilder();
+
+            duration.phases.forEach((name, statistics) -> phases
+                .append(phases.isEmpty() ? "" : " | ")
+                .append(name)
+                .append(statistics.count() > 1 ? " p50 " : " ")
+                .append(Statistics.asMs(statistics.p50()))
+                .append(" ms"));
+
+            log.info(() -> indent + phases);
+        }
+
+        if (duration.garbageCollection != null) {
+            log.info(() -> " ".repeat(prefex.length()) + duration.garbageCollection);
+        }
+    }
+
+    private void logAnswer(String answer, String phase, String suffix) {
         var prefex = "  " + phase + " ".repeat(10 - phase.length()) + ": ";
-        var suffix = duration.nanosAsMs();
 
-        var shouldLogSeparateLines = duration.result.contains("\n") || duration.result.length() > (WIDTH - prefex.length() - suffix.length() - 5);
+        var shouldLogSeparateLines = answer.contains("\n") || answer.length() > (WIDTH - prefex.length() - suffix.length() - 5);
 
         if (shouldLogSeparateLines) {
-            var outputWidth = Arrays.stream(duration.result.split("\n")).mapToInt(String::length).max().orElseThrow();
+            var outputWidth = Arrays.stream(answer.split("\n")).mapToInt(String::length).max().orElseThrow();
             var outputSeparator = "=".repeat(outputWidth);
 
-            log.info(() -> rightAlign(prefex, suffix) + "\n" + outputSeparator + "\n" + duration.result + "\n" + outputSeparator);
+            log.info(() -> rightAlign(prefex, suffix) + "\n" + outputSeparator + "\n" + answer + "\n" + outputSeparator);
         } else {
-            log.info(() -> rightAlign(prefex + duration.result, suffix));
+            log.info(() -> rightAlign(prefex + answer, suffix));
         }
     }
 
-    private record AssignmentData(String example, String expected, String real) {}
+    private record AssignmentData(Input example, String expected, Input real) {}
 
-    private AssignmentData readAssignmentData(final AssignmentType assignmentType) throws IOException {
+    private AssignmentData readAssignmentData(final AssignmentType assignmentType, final Generation generation, final SharedModels shared) throws IOException {
         return new AssignmentData(
-            readFile("input-example.txt"),
-            readFile("expected-" + assignmentType.name().toLowerCase() + ".txt"),
-            readFile("input-real.txt")
+            readFile("input-example.txt", Run.EXAMPLE),
+            readFile("expected-" + assignmentType.name().toLowerCase() + ".txt", Run.EXAMPLE).string(),
+            generation == null ? readFile("input-real.txt", Run.REAL) : generate(generation, shared)
         );
     }
 
-    private String readFile(final String inputFileName) throws IOException {
-        final var inputFileResourceName = inputFileResourceName(inputFileName);
-        try (final var inputStream = day.getClass().getClassLoader().getResourceAsStream(inputFileResourceName)) {
-
-            if (inputStream == null) {
-                throw new IOException("File not found: " + inputFileResourceName);
-            }
-
-            try (Reader reader = new InputStreamReader(Objects.requireNonNull(inputStream))) {
-                final var writer = new StringWriter();
-
-                final var buffer = new char[1024];
+    private Input generate(final Generation generation, final SharedModels shared) {
+        final var input = shared == null ? generation.input(day) : shared.generated(() -> generation.input(day));
 
-                var charsRead = reader.read(buffer);
+        log.info(() -> "  GENERATED : size " + generation.size() + " seed " + generation.seed() + " (" + Statistics.asBytes(input.size()) + ")");
 
-                while (charsRead != -1) {
-                    writer.write(buffer, 0, charsRead);
-
-                    charsRead = reader.read(buffer);
-                }
+        return input;
+    }
 
-                return writer.toString();
+    private Input readFile(final String inputFileName, final Run run) throws IOException {
+        final var event = new DayEvents.ReadInput();
+        event.file = inputFileName;
+        event.begin();
+        try {
+            return InputStore.load(day.getClass().getClassLoader(), inputFileResourceName(inputFileName));
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.day = day.getClass().getSimpleName();
+                event.assignmentType = assignmentType.name();
+                event.run = run.name();
+                event.commit();
             }
-        }    }
+        }
+    }
 
     private String inputFileResourceName(final String inputFileName) {
         return day.getClass().getPackageName().replace('.', '/') + "/data/" + inputFileName;
@@ -161,9 +269,17 @@ public record DayRunner(Day day, AssignmentType assignmentType) {
         printSeparator();
     }
 
-    record Duration<T>(T result, long nanos) {
+    record Duration<T>(T result, Statistics statistics, Map<String, Statistics> phases, Statistics allocations, GarbageCollection.Usage garbageCollection) {
+        public long nanos() {
+            return statistics.p50();
+        }
+
         public String nanosAsMs() {
-            return new DecimalFormat("#0.00 ms", new DecimalFormatSymbols(Locale.US)).format(((double)nanos) / 1_000_000);
+            return (statistics.count() > 1 ? "p50 " : "") + Statistics.asMs(nanos()) + " ms";
+        }
+
+        public String allocatedAndNanosAsMs() {
+            return allocations == null ? nanosAsMs() : Statistics.asBytes(allocations.p50()) + "  " + nanosAsMs();
         }
 
         @Override
@@ -171,12 +287,4 @@ public record DayRunner(Day day, AssignmentType assignmentType) {
             return result.toString();
         }
     }
-
-    private <T> Duration<T> run(Supplier<T> function) {
-        long start = System.nanoTime();
-        T result = function.get();
-        long nanos = System.nanoTime() - start;
-
-        return new Duration<>(result, nanos);
-    }
 }
@@ -0,0 +1,48 @@
+package nl.q8p.aoc2022;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+// Days are found by their name, nl.q8p.aoc2022.dayXX.DayXX, so only the classes of the selected days are loaded.
+final class Days {
+    private static final int DAYS = 25;
+
+    private static final Map<Integer, Day> LOADED = new ConcurrentHashMap<>();
+
+    private Days() {
+    }
+
+    static List<Day> matching(String assignmentFilter) {
+        return IntStream.rangeClosed(1, DAYS)
+            .filter(number -> assignmentFilter == null || Arrays.stream(DayRunner.AssignmentType.values()).anyMatch(type -> (name(number) + "#" + type).matches(assignmentFilter)))
+            .mapToObj(Days::load)
+            .toList();
+    }
+
+    static Optional<Day> named(String name) {
+        return IntStream.rangeClosed(1, DAYS)
+            .filter(number -> name(number).equals(name))
+            .mapToObj(Days::load)
+            .findFirst();
+    }
+
+    private static String name(int number) {
+        return String.format("Day%02d", number);
+    }
+
+    private static Day load(int number) {
+        return LOADED.computeIfAbsent(number, key -> {
+            final var className = Days.class.getPackageName() + "." + name(number).toLowerCase() + "." + name(number);
+
+            try {
+                return (Day) Class.forName(className).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot load " + className, e);
+            }
+        });
+    }
+}
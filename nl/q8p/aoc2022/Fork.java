@@ -0,0 +1,192 @@
+package nl.q8p.aoc2022;
+
+import nl.q8p.aoc2022.Assignment.Run;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+final class Fork {
+    private static final Logger LOG = Logger.getLogger(Fork.class.getName());
+
+    static final String CHILD = "fork-child";
+
+    private static final String PREFIX = "@fork ";
+    private static final String TOTAL = "total";
+    private static final String ALLOCATED = "allocated";
+    private static final String GARBAGE_COLLECTION = "gc";
+    private static final int ERROR_LINES = 20;
+
+    private final int forks;
+
+    Fork(int forks) {
+        this.forks = forks;
+    }
+
+    static void emit(PrintStream out, List<DayRunner.Result> results) {
+        results.forEach(result -> {
+            final var prefix = PREFIX + result.key() + " " + result.run() + " ";
+            final var duration = result.duration();
+
+            out.println(prefix + "result " + Base64.getEncoder().encodeToString(duration.result().getBytes(StandardCharsets.UTF_8)));
+            out.println(prefix + TOTAL + " " + samples(duration.statistics()));
+            if (duration.garbageCollection() != null) {
+                final var usage = duration.garbageCollection();
+                out.println(prefix + GARBAGE_COLLECTION + " " + usage.collections() + "," + usage.millis() + "," + usage.peakHeap());
+            }
+            if (duration.allocations() != null) {
+                out.println(prefix + ALLOCATED + " " + samples(duration.allocations()));
+            }
+            duration.phases().forEach((phase, statistics) -> out.println(prefix + phase + " " + samples(statistics)));
+        });
+
+        out.flush();
+    }
+
+    private static String samples(Statistics statistics) {
+        return Arrays.stream(statistics.samples()).mapToObj(Long::toString).collect(Collectors.joining(","));
+    }
+
+    List<DayRunner.Result> run(DayRunner dayRunner, List<String> childArguments) {
+        final var collected = new EnumMap<Run, Collected>(Run.class);
+
+        for (var i = 0; i < forks; i++) {
+            try {
+                collect(dayRunner, childArguments, collected);
+            } catch (IOException e) {
+                LOG.severe(() -> dayRunner.key() + ": cannot fork: " + e.getMessage());
+                return List.of();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return List.of();
+            }
+        }
+
+        dayRunner.printHeader();
+        LOG.info(() -> "  FORKS     : " + forks);
+
+        final var results = new ArrayList<DayRunner.Result>();
+        collected.forEach((run, result) -> {
+            if (!result.samples.containsKey(TOTAL)) {
+                LOG.severe(() -> dayRunner.key() + ": no fork measured the " + run + " run");
+                return;
+            }
+
+            final var duration = result.duration();
+
+            dayRunner.logResult(duration, run.name());
+            results.add(new DayRunner.Result(dayRunner, run, duration));
+        });
+
+        return results;
+    }
+
+    private void collect(DayRunner dayRunner, List<String> childArguments, Map<Run, Collected> collected) throws IOException, InterruptedException {
+        final var process = new ProcessBuilder(command(childArguments)).start();
+        final var errors = new ArrayDeque<String>();
+        final var errorCopier = copyErrors(process, errors);
+
+        try (var reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(PREFIX + dayRunner.key() + " ")) {
+                    final var parts = line.substring(PREFIX.length()).split(" ", 4);
+                    final var result = collected.computeIfAbsent(Run.valueOf(parts[1]), run -> new Collected());
+
+                    if (parts[2].equals("result")) {
+                        final var answer = new String(Base64.getDecoder().decode(parts[3]), StandardCharsets.UTF_8);
+
+                        if (result.answer != null && !result.answer.equals(answer)) {
+                            LOG.warning(() -> dayRunner.key() + ": forks disagree on the answer: " + result.answer + " vs " + answer);
+                        }
+                        result.answer = answer;
+                    } else if (parts[2].equals(GARBAGE_COLLECTION)) {
+                        final var usage = Arrays.stream(parts[3].split(",")).mapToLong(Long::parseLong).toArray();
+
+                        final var forked = new GarbageCollection.Usage(usage[0], usage[1], usage[2]);
+
+                        result.garbageCollection = result.garbageCollection == null ? forked : result.garbageCollection.plus(forked);
+                    } else {
+                        final var samples = Arrays.stream(parts[3].split(",")).mapToLong(Long::parseLong).toArray();
+
+                        result.samples.computeIfAbsent(parts[2], phase -> new ArrayList<>()).add(Statistics.of(samples));
+                    }
+                }
+            }
+        }
+
+        final var exitCode = process.waitFor();
+        errorCopier.join();
+        if (exitCode != 0) {
+            LOG.severe(() -> dayRunner.key() + ": fork exited with " + exitCode + (errors.isEmpty() ? "" : ", last error output:\n" + String.join("\n", errors)));
+        }
+    }
+
+    // passes the child's error output (its log) on, keeping the last lines to report when the child fails
+    private static Thread copyErrors(Process process, Deque<String> errors) {
+        final var copier = new Thread(() -> {
+            try (var reader = new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    System.err.println(line);
+                    if (errors.size() == ERROR_LINES) {
+                        errors.removeFirst();
+                    }
+                    errors.addLast(line);
+                }
+            } catch (IOException e) {
+                LOG.warning(() -> "Cannot read the error output of a fork: " + e.getMessage());
+            }
+        }, "fork-errors");
+        copier.setDaemon(true);
+        copier.start();
+
+        return copier;
+    }
+
+    private static List<String> command(List<String> childArguments) {
+        final var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Main.class.getName());
+        command.addAll(childArguments);
+
+        return command;
+    }
+
+    private static final class Collected {
+        private String answer;
+        private GarbageCollection.Usage garbageCollection;
+        private final Map<String, List<Statistics>> samples = new LinkedHashMap<>();
+
+        DayRunner.Duration<String> duration() {
+            final var phases = new LinkedHashMap<String, Statistics>();
+            samples.forEach((phase, statistics) -> {
+                if (!phase.equals(TOTAL) && !phase.equals(ALLOCATED)) {
+                    phases.put(phase, Statistics.merge(statistics));
+                }
+            });
+
+            final var allocations = samples.containsKey(ALLOCATED) ? Statistics.merge(samples.get(ALLOCATED)) : null;
+
+            return new DayRunner.Duration<>(answer, Statistics.merge(samples.get(TOTAL)), phases, allocations, garbageCollection);
+        }
+    }
+}
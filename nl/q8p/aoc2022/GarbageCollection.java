@@ -0,0 +1,60 @@
+package nl.q8p.aoc2022;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+// Collections and heap high-water mark around a run. The peak heap is the sum of the peaks of the heap pools, which
+// may each have peaked at a different moment, so it is an upper bound.
+// Both are JVM-wide, so while assignments are measured concurrently (see Benchmark.concurrent) they are not measured.
+final class GarbageCollection {
+    private static final List<GarbageCollectorMXBean> COLLECTORS = ManagementFactory.getGarbageCollectorMXBeans();
+    private static final List<MemoryPoolMXBean> HEAP_POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+        .toList();
+
+    record Usage(long collections, long millis, long peakHeap) {
+        static final Usage NONE = new Usage(0, 0, 0);
+
+        Usage plus(Usage other) {
+            return new Usage(collections + other.collections, millis + other.millis, Math.max(peakHeap, other.peakHeap));
+        }
+
+        @Override
+        public String toString() {
+            return "gc " + collections + " (" + millis + " ms) | peak heap " + Statistics.asBytes(peakHeap);
+        }
+    }
+
+    private final long collectionsBefore;
+    private final long millisBefore;
+
+    private GarbageCollection(long collectionsBefore, long millisBefore) {
+        this.collectionsBefore = collectionsBefore;
+        this.millisBefore = millisBefore;
+    }
+
+    static GarbageCollection start() {
+        HEAP_POOLS.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        return new GarbageCollection(collections(), millis());
+    }
+
+    Usage stop() {
+        final var collections = collections() - collectionsBefore;
+        final var millis = millis() - millisBefore;
+        final var peakHeap = HEAP_POOLS.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+        return new Usage(collections, millis, peakHeap);
+    }
+
+    private static long collections() {
+        return COLLECTORS.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).filter(count -> count > 0).sum();
+    }
+
+    private static long millis() {
+        return COLLECTORS.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).filter(time -> time > 0).sum();
+    }
+}
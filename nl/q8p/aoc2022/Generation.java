@@ -0,0 +1,17 @@
+package nl.q8p.aoc2022;
+
+import java.util.Random;
+
+record Generation(int size, long seed) {
+
+    static Generation of(Arguments arguments) {
+        return arguments.string("generate") == null ? null : new Generation(arguments.positive("generate"), arguments.integer("seed", 1));
+    }
+
+    Input input(Day day) {
+        final var generator = day.generator()
+            .orElseThrow(() -> new UnsupportedOperationException(day.getClass().getSimpleName() + " has no input generator"));
+
+        return Input.of(generator.generate(size, new Random(seed)));
+    }
+}
@@ -0,0 +1,9 @@
+package nl.q8p.aoc2022;
+
+import java.util.Random;
+
+// Produces a valid input of a day, scaled by size; the same size and seed give the same input.
+@FunctionalInterface
+public interface Generator {
+    String generate(int size, Random random);
+}
@@ -0,0 +1,102 @@
+package nl.q8p.aoc2022;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+// Records logged on the thread running an assignment are grouped. Records of other threads, such as the common pool workers of a
+// parallel stream, are grouped by the package of their logger when exactly one assignment of that day is running; otherwise (both
+// assignments of the day run, or the logger is not a day's) they are forwarded right away.
+final class GroupingHandler extends Handler {
+    private static final ThreadLocal<List<LogRecord>> GROUP = new ThreadLocal<>();
+
+    private final Logger logger;
+    private final List<Handler> delegates;
+    private final Map<String, List<List<LogRecord>>> running = new HashMap<>();
+
+    private GroupingHandler(Logger logger, List<Handler> delegates) {
+        this.logger = logger;
+        this.delegates = delegates;
+    }
+
+    static GroupingHandler install() {
+        final var root = Logger.getLogger("");
+        final var delegates = List.of(root.getHandlers());
+
+        delegates.forEach(root::removeHandler);
+
+        final var handler = new GroupingHandler(root, delegates);
+        root.addHandler(handler);
+
+        return handler;
+    }
+
+    <T> T grouped(Day day, Supplier<T> function) {
+        final var dayPackage = day.getClass().getPackageName();
+        final var records = new ArrayList<LogRecord>();
+
+        synchronized (this) {
+            running.computeIfAbsent(dayPackage, key -> new ArrayList<>()).add(records);
+        }
+        GROUP.set(records);
+        try {
+            return function.get();
+        } finally {
+            GROUP.remove();
+
+            synchronized (this) {
+                running.get(dayPackage).removeIf(group -> group == records);
+                records.forEach(this::forward);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void publish(LogRecord logRecord) {
+        final var own = GROUP.get();
+        final var group = own != null ? own : dayGroup(logRecord.getLoggerName());
+
+        if (group != null) {
+            group.add(logRecord);
+        } else {
+            forward(logRecord);
+        }
+    }
+
+    private List<LogRecord> dayGroup(String loggerName) {
+        if (loggerName == null) {
+            return null;
+        }
+
+        return running.entrySet().stream()
+            .filter(entry -> loggerName.startsWith(entry.getKey() + ".") && entry.getValue().size() == 1)
+            .map(entry -> entry.getValue().get(0))
+            .findFirst()
+            .orElse(null);
+    }
+
+    private void forward(LogRecord logRecord) {
+        delegates.forEach(delegate -> delegate.publish(logRecord));
+    }
+
+    @Override
+    public void flush() {
+        delegates.forEach(Handler::flush);
+    }
+
+    @Override
+    public void close() {
+        delegates.forEach(Handler::close);
+    }
+
+    void uninstall() {
+        flush();
+        logger.removeHandler(this);
+        delegates.forEach(logger::addHandler);
+    }
+}
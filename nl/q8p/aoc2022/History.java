@@ -0,0 +1,160 @@
+package nl.q8p.aoc2022;
+
+import nl.q8p.aoc2022.Assignment.Run;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+// Append-only record of benchmark results, one tab separated line per run:
+// timestamp, git revision, JVM version, CPU count, Day#AssignmentType, run, p50 nanos and p50 allocated bytes (-1 if unknown).
+// Like the baseline only REAL runs with at least Baseline.MIN_SAMPLES samples are recorded; a run on a generated input is
+// recorded as e.g. "REAL generated 1000 seed 1", so it gets its own series apart from the real input.
+final class History {
+    private static final Logger LOG = Logger.getLogger(History.class.getName());
+
+    private static final String BARS = "\u2581\u2582\u2583\u2584\u2585\u2586\u2587\u2588";
+    private static final int WINDOW = 5;
+
+    record Entry(Instant timestamp, String revision, String jvm, int cpus, String key, String run, long nanos, long allocated) {
+        String line() {
+            return String.join("\t", timestamp.toString(), revision, jvm, Integer.toString(cpus), key, run, Long.toString(nanos), Long.toString(allocated));
+        }
+
+        static Entry parse(String line) {
+            final var parts = line.split("\t");
+
+            return new Entry(Instant.parse(parts[0]), parts[1], parts[2], Integer.parseInt(parts[3]), parts[4], parts[5], Long.parseLong(parts[6]), Long.parseLong(parts[7]));
+        }
+    }
+
+    private History() {
+    }
+
+    static void append(Path file, List<DayRunner.Result> results, Generation generation) {
+        final var timestamp = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        final var revision = gitRevision();
+        final var jvm = System.getProperty("java.vm.name") + " " + System.getProperty("java.version");
+        final var cpus = Runtime.getRuntime().availableProcessors();
+
+        final var run = Run.REAL.name() + (generation == null ? "" : " generated " + generation.size() + " seed " + generation.seed());
+        final var lines = results.stream()
+            .filter(History::recorded)
+            .map(result -> new Entry(
+                timestamp, revision, jvm, cpus, result.key(), run,
+                result.duration().nanos(),
+                result.duration().allocations() == null ? -1 : result.duration().allocations().p50()
+            ).line())
+            .toList();
+
+        try {
+            Files.write(file, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        LOG.info(() -> "Appended " + lines.size() + " runs of revision " + revision + " to " + file);
+    }
+
+    private static boolean recorded(DayRunner.Result result) {
+        if (result.run() != Run.REAL) {
+            return false;
+        }
+
+        final var count = result.duration().statistics().count();
+        if (count < Baseline.MIN_SAMPLES) {
+            LOG.warning(() -> result.key() + " " + result.run() + ": skipped for the history, " + count + " samples is fewer than " + Baseline.MIN_SAMPLES + " (use --iterations)");
+            return false;
+        }
+
+        return true;
+    }
+
+    private static String gitRevision() {
+        try {
+            final var process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            final var output = new String(process.getInputStream().readAllBytes()).trim();
+
+            return process.waitFor(5, TimeUnit.SECONDS) && process.exitValue() == 0 && !output.isEmpty() ? output : "-";
+        } catch (IOException e) {
+            return "-";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "-";
+        }
+    }
+
+    // Prints a sparkline of the median time and allocations per Day#AssignmentType and run, oldest first,
+    // and flags every entry whose median differs more than stepPercentage from the median of the entries before it.
+    static void report(Path file, double stepPercentage) {
+        final Map<String, List<Entry>> entries;
+        try (var lines = Files.lines(file)) {
+            entries = lines
+                .filter(line -> !line.isBlank())
+                .map(Entry::parse)
+                .collect(Collectors.groupingBy(entry -> entry.key() + " " + entry.run(), LinkedHashMap::new, Collectors.toList()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        entries.keySet().stream().sorted().forEach(key -> {
+            final var history = entries.get(key);
+            final var last = history.get(history.size() - 1);
+
+            LOG.info(() -> String.format(Locale.US, "%-20s time  %s %10s ms", key, sparkline(history, Entry::nanos), Statistics.asMs(last.nanos())));
+            if (last.allocated() >= 0) {
+                LOG.info(() -> String.format(Locale.US, "%-20s alloc %s %10s", "", sparkline(history, Entry::allocated), Statistics.asBytes(last.allocated())));
+            }
+
+            for (var i = 1; i < history.size(); i++) {
+                final var entry = history.get(i);
+                final var previous = median(history.subList(Math.max(0, i - WINDOW), i));
+                final var change = 100.0 * (entry.nanos() - previous) / Math.max(1, previous);
+
+                if (Math.abs(change) > stepPercentage) {
+                    LOG.warning(() -> String.format(Locale.US, "%-20s step  %+.1f%% at %s (revision %s, %s, %d cpus): %s ms -> %s ms",
+                        key, change, entry.timestamp(), entry.revision(), entry.jvm(), entry.cpus(), Statistics.asMs(previous), Statistics.asMs(entry.nanos())));
+                }
+            }
+        });
+    }
+
+    private static long median(List<Entry> entries) {
+        final var sorted = entries.stream().mapToLong(Entry::nanos).sorted().toArray();
+
+        return sorted[(sorted.length - 1) / 2];
+    }
+
+    // unknown values (-1) are left blank
+    private static String sparkline(List<Entry> history, ToLongFunction<Entry> value) {
+        final var values = history.stream().mapToLong(value).toArray();
+        final var min = Arrays.stream(values).filter(v -> v >= 0).min().orElse(0);
+        final var max = Arrays.stream(values).filter(v -> v >= 0).max().orElse(0);
+
+        final var sparkline = new StringBuilder();
+        for (var v : values) {
+            if (v < 0) {
+                sparkline.append(' ');
+                continue;
+            }
+
+            final var bar = max == min ? 0 : (int) ((v - min) * (BARS.length() - 1) / (max - min));
+            sparkline.append(BARS.charAt(bar));
+        }
+
+        return sparkline.toString();
+    }
+}
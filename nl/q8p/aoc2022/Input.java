@@ -0,0 +1,39 @@
+package nl.q8p.aoc2022;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+final class Input {
+    private final ByteBuffer bytes;
+    private volatile String string;
+
+    Input(ByteBuffer bytes) {
+        this.bytes = bytes.asReadOnlyBuffer();
+    }
+
+    static Input of(String string) {
+        final var input = new Input(ByteBuffer.wrap(string.getBytes(StandardCharsets.UTF_8)));
+        input.string = string;
+
+        return input;
+    }
+
+    ByteBuffer bytes() {
+        return bytes.duplicate();
+    }
+
+    int size() {
+        return bytes.capacity();
+    }
+
+    String string() {
+        var result = string;
+
+        if (result == null) {
+            result = StandardCharsets.UTF_8.decode(bytes()).toString();
+            string = result;
+        }
+
+        return result;
+    }
+}
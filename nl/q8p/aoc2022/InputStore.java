@@ -0,0 +1,68 @@
+package nl.q8p.aoc2022;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+final class InputStore {
+    private static final Map<String, Input> INPUTS = new ConcurrentHashMap<>();
+
+    private InputStore() {
+    }
+
+    static Input load(ClassLoader classLoader, String resourceName) throws IOException {
+        try {
+            return INPUTS.computeIfAbsent(resourceName, name -> {
+                try {
+                    return new Input(read(classLoader, name));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // not cached, for inputs outside the class path that are used once
+    static Input read(Path file) throws IOException {
+        return new Input(map(file));
+    }
+
+    private static ByteBuffer read(ClassLoader classLoader, String resourceName) throws IOException {
+        final var url = classLoader.getResource(resourceName);
+
+        if (url == null) {
+            throw new IOException("File not found: " + resourceName);
+        }
+
+        if (url.getProtocol().equals("file")) {
+            return map(path(url));
+        }
+
+        try (var inputStream = url.openStream()) {
+            return ByteBuffer.wrap(inputStream.readAllBytes());
+        }
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static Path path(URL url) throws IOException {
+        try {
+            return Path.of(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid file location: " + url, e);
+        }
+    }
+}
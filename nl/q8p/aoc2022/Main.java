@@ -1,38 +1,28 @@
 package nl.q8p.aoc2022;
 
 import nl.q8p.aoc2022.Assignment.Run;
-import nl.q8p.aoc2022.day01.Day01;
-import nl.q8p.aoc2022.day02.Day02;
-import nl.q8p.aoc2022.day03.Day03;
-import nl.q8p.aoc2022.day04.Day04;
-import nl.q8p.aoc2022.day05.Day05;
-import nl.q8p.aoc2022.day06.Day06;
-import nl.q8p.aoc2022.day07.Day07;
-import nl.q8p.aoc2022.day08.Day08;
-import nl.q8p.aoc2022.day09.Day09;
-import nl.q8p.aoc2022.day10.Day10;
-import nl.q8p.aoc2022.day11.Day11;
-import nl.q8p.aoc2022.day12.Day12;
-import nl.q8p.aoc2022.day13.Day13;
-import nl.q8p.aoc2022.day14.Day14;
-import nl.q8p.aoc2022.day15.Day15;
-import nl.q8p.aoc2022.day16.Day16;
-import nl.q8p.aoc2022.day17.Day17;
-import nl.q8p.aoc2022.day18.Day18;
-import nl.q8p.aoc2022.day19.Day19;
-import nl.q8p.aoc2022.day20.Day20;
-import nl.q8p.aoc2022.day21.Day21;
-import nl.q8p.aoc2022.day22.Day22;
-import nl.q8p.aoc2022.day23.Day23;
-import nl.q8p.aoc2022.day24.Day24;
-import nl.q8p.aoc2022.day25.Day25;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.lang.System.err;
 
@@ -40,36 +30,271 @@ public class Main {
 
     private static final Logger LOG = Logger.getLogger(Main.class.getName());
 
+    private final Arguments arguments;
     private final String assignmentFilter;
     private final String runFilter;
-    private final int preHeatSeconds;
+    private final Benchmark benchmark;
+    private final int threads;
+    private final int forks;
+    private final Profiler profiler;
+    private final Generation generation;
+    private final Sweep sweep;
+    private final AnswerCache cache;
+    private final Batch batch;
+    private final long timeoutNanos;
+
+    Main(Arguments arguments) {
+        final var preHeatSeconds = arguments.positional(2) == null ? -1 : Integer.parseInt(arguments.positional(2));
 
-    public Main(String assignmentFilter, String runFilter, int preHeatSeconds) {
-        this.assignmentFilter = assignmentFilter;
-        this.runFilter = runFilter;
-        this.preHeatSeconds = preHeatSeconds;
+        this.arguments = arguments;
+        this.assignmentFilter = arguments.positional(0);
+        this.runFilter = arguments.positional(1);
+        this.benchmark = Benchmark.of(arguments, preHeatSeconds);
+        this.threads = arguments.flag("parallel") ? arguments.integer("threads", Runtime.getRuntime().availableProcessors()) : 0;
+        this.forks = arguments.flag("fork") ? Math.max(1, arguments.integer("forks", 1)) : 0;
+        this.profiler = Profiler.of(arguments);
+        this.generation = Generation.of(arguments);
+        this.sweep = Sweep.of(arguments);
+        this.batch = Batch.of(arguments);
+        // a batch should not wait forever on one pathological input
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(arguments.integer("timeout", batch == null ? 0 : 60));
+        // the cache is opt-in, as a cached answer has no timing; a benchmark has to run the assignments, a fork reports its
+        // measurements to the parent, and a cached answer has no measurement to compare, record or profile
+        this.cache = arguments.string("cache") == null || arguments.flag("no-cache") || !benchmark.isSingle() || arguments.flag(Fork.CHILD) || measures(arguments)
+            ? null : AnswerCache.of(arguments);
+    }
+
+    private static boolean measures(Arguments arguments) {
+        return Stream.of("baseline", "save-baseline", "history", "profile", "jfr").anyMatch(option -> arguments.string(option) != null);
     }
 
     public static void main(String[] args) {
-        configureLogging();
+        final var arguments = Arguments.parse(args);
+
+        configureLogging(arguments.flag(Fork.CHILD));
 
-        new Main(args.length < 1 ? null : args[0], args.length < 2 ? null : args[1], args.length < 3 ? -1 : Integer.parseInt(args[2])).run();
+        try {
+            if (!new Main(arguments).run()) {
+                System.exit(1);
+            }
+        } catch (Arguments.UsageException e) {
+            err.println(e.getMessage());
+            err.println(Arguments.USAGE);
+            System.exit(2);
+        }
     }
 
-    private static void configureLogging() {
+    private static void configureLogging(boolean forkChild) {
         try {
-            LogManager.getLogManager().readConfiguration(Main.class.getClassLoader().getResourceAsStream("logging.properties"));
+            final var configuration = Main.class.getClassLoader().getResourceAsStream("logging.properties");
+
+            if (forkChild) {
+                // a forked child only logs to the console; the parent owns the log file
+                LogManager.getLogManager().updateConfiguration(configuration, key -> (oldValue, newValue) -> key.equals(AsyncHandler.class.getName() + ".handlers") ? "java.util.logging.ConsoleHandler" : newValue);
+            } else {
+                LogManager.getLogManager().readConfiguration(configuration);
+            }
         } catch (IOException e) {
             err.println("Problem configuring logging" + e);
             e.printStackTrace();
         }
     }
 
-    public void run() {
-        loadDays()
-                .stream().flatMap(day -> Arrays.stream(DayRunner.AssignmentType.values()).map(assignmentType -> new DayRunner(day, assignmentType)))
-                .filter((dayRunner -> assignmentFilter == null || (dayRunner.day().getClass().getSimpleName() + "#" + dayRunner.assignmentType().name()).matches(assignmentFilter)))
-                .forEach(dayRunner -> dayRunner.run(runs(), preHeatSeconds));
+    public boolean run() {
+        if (arguments.string("report") != null) {
+            History.report(Path.of(arguments.string("report")), arguments.decimal("step", 20));
+            return true;
+        }
+
+        if (arguments.flag("serve")) {
+            Server.of(arguments).start();
+            return true;
+        }
+
+        if (arguments.flag("clear-cache")) {
+            AnswerCache.clear(AnswerCache.directory(arguments));
+        }
+
+        final var recording = startRecording();
+
+        final List<DayRunner.Result> results;
+        try {
+            results = runDays();
+        } finally {
+            stopRecording(recording);
+        }
+
+        if (arguments.string("history") != null) {
+            History.append(Path.of(arguments.string("history")), results, generation);
+        }
+
+        if (arguments.string("save-baseline") != null) {
+            Baseline.save(Path.of(arguments.string("save-baseline")), results);
+        }
+
+        if (arguments.string("baseline") != null) {
+            return Baseline.load(Path.of(arguments.string("baseline")))
+                .check(results, assignmentFilter, arguments.decimal("threshold", 10), arguments.decimal("noise", 3));
+        }
+
+        return true;
+    }
+
+    private Recording startRecording() {
+        final var destination = arguments.string("jfr");
+        if (destination == null || arguments.flag(Fork.CHILD)) {
+            return null;
+        }
+
+        try {
+            final var recording = new Recording(Configuration.getConfiguration(arguments.string("jfr-settings") == null ? "default" : arguments.string("jfr-settings")));
+            recording.setName("aoc2022");
+            recording.setDestination(Path.of(destination));
+            recording.start();
+
+            return recording;
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Could not start flight recording to " + destination, e);
+        }
+    }
+
+    private static void stopRecording(Recording recording) {
+        if (recording == null) {
+            return;
+        }
+
+        recording.stop();
+        LOG.info(() -> "Flight recording written to " + recording.getDestination());
+        recording.close();
+    }
+
+    private List<DayRunner.Result> runDays() {
+        final var dayRunners = Days.matching(assignmentFilter)
+                .stream().flatMap(day -> Arrays.stream(DayRunner.AssignmentType.values()).map(assignmentType -> new DayRunner(day, assignmentType, timeoutNanos)))
+                .filter((dayRunner -> assignmentFilter == null || dayRunner.key().matches(assignmentFilter)))
+                .filter(this::canGenerate)
+                .toList();
+
+        if (!arguments.flag(Fork.CHILD)) {
+            logColdStart();
+        }
+
+        final var sharedModels = dayRunners.stream()
+            .collect(Collectors.groupingBy(DayRunner::day, Collectors.collectingAndThen(Collectors.counting(), count -> new SharedModels(count.intValue()))));
+
+        if (arguments.flag(Fork.CHILD)) {
+            dayRunners.forEach(dayRunner -> Fork.emit(System.out, run(dayRunner, sharedModels.get(dayRunner.day()))));
+            return List.of();
+        } else if (sweep != null) {
+            dayRunners.forEach(dayRunner -> sweep.run(dayRunner, benchmark));
+            return List.of();
+        } else if (batch != null) {
+            batch.run(dayRunners);
+            return List.of();
+        } else if (forks > 0) {
+            return runForked(dayRunners);
+        } else if (threads > 0) {
+            return runParallel(dayRunners, sharedModels);
+        } else {
+            return dayRunners.stream().flatMap(dayRunner -> run(dayRunner, sharedModels.get(dayRunner.day())).stream()).toList();
+        }
+    }
+
+    private static void logColdStart() {
+        // whether a class data sharing archive was mapped is not visible from here (the JVM warns when it cannot use one)
+        final var uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        LOG.info(() -> "Cold start: " + uptime + " ms until the first assignment");
+    }
+
+    private boolean canGenerate(DayRunner dayRunner) {
+        if ((generation == null && sweep == null) || dayRunner.day().generator().isPresent()) {
+            return true;
+        }
+
+        LOG.warning(() -> dayRunner.key() + " skipped: no input generator");
+        return false;
+    }
+
+    private List<DayRunner.Result> run(DayRunner dayRunner, SharedModels shared) {
+        try {
+            if (profiler == null) {
+                return dayRunner.run(runs(), benchmark, generation, cache, shared);
+            }
+
+            return profiler.profile(dayRunner.key(), dayRunner.day(), () -> dayRunner.run(runs(), benchmark, generation, cache, shared));
+        } finally {
+            shared.done();
+        }
+    }
+
+    private List<DayRunner.Result> runForked(List<DayRunner> dayRunners) {
+        final var fork = new Fork(forks);
+        final var results = new ArrayList<DayRunner.Result>();
+
+        for (var dayRunner : dayRunners) {
+            final var childArguments = new ArrayList<String>();
+            childArguments.add("^" + dayRunner.key() + "$");
+            childArguments.add(runFilter == null ? ".*" : runFilter);
+            if (arguments.positional(2) != null) {
+                childArguments.add(arguments.positional(2));
+            }
+            childArguments.addAll(arguments.options(Set.of("fork", "forks", "parallel", "threads", "jfr", "jfr-settings", "baseline", "save-baseline", "history")));
+            childArguments.add("--" + Fork.CHILD);
+
+            results.addAll(fork.run(dayRunner, childArguments));
+        }
+
+        return results;
+    }
+
+    private List<DayRunner.Result> runParallel(List<DayRunner> dayRunners, Map<Day, SharedModels> sharedModels) {
+        final var groupingHandler = GroupingHandler.install();
+        final var executor = Executors.newFixedThreadPool(threads);
+        final var results = new ArrayList<DayRunner.Result>();
+
+        Benchmark.concurrent(true);
+
+        try {
+            final var start = System.nanoTime();
+            final var wallTimes = new LongAdder();
+
+            final var futures = dayRunners.stream()
+                .map(dayRunner -> executor.submit(() -> groupingHandler.grouped(dayRunner.day(), () -> runTimed(dayRunner, sharedModels.get(dayRunner.day()), wallTimes))))
+                .toList();
+
+            for (var future : futures) {
+                results.addAll(future.get());
+            }
+
+            final var makespan = System.nanoTime() - start;
+            final var totalOfWallTimes = wallTimes.sum();
+
+            LOG.info(() -> "Ran " + dayRunners.size() + " assignments on " + threads + " threads: makespan " + Statistics.asMs(makespan) + " ms"
+                + ", sum of assignment wall times " + Statistics.asMs(totalOfWallTimes) + " ms"
+                + " (" + String.format(Locale.US, "%.1f", (double) totalOfWallTimes / makespan) + "x)");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdown();
+            groupingHandler.uninstall();
+            Benchmark.concurrent(false);
+        }
+
+        return results;
+    }
+
+    private List<DayRunner.Result> runTimed(DayRunner dayRunner, SharedModels shared, LongAdder wallTimes) {
+        final var start = System.nanoTime();
+        final var results = run(dayRunner, shared);
+        final var wallTime = System.nanoTime() - start;
+        wallTimes.add(wallTime);
+
+        LOG.info(() -> dayRunner.key() + " wall time: " + Statistics.asMs(wallTime) + " ms");
+
+        return results;
     }
 
     private List<Run> runs() {
@@ -78,35 +303,4 @@ public class Main {
             .filter(run -> runFilter == null || run.name().matches(runFilter))
             .toList();
     }
-
-    private static List<Day> loadDays() {
-        final var days = new ArrayList<Day>();
-        days.add(new Day01());
-        days.add(new Day02());
-        days.add(new Day03());
-        days.add(new Day04());
-        days.add(new Day05());
-        days.add(new Day06());
-        days.add(new Day07());
-        days.add(new Day08());
-        days.add(new Day09());
-        days.add(new Day10());
-        days.add(new Day11());
-        days.add(new Day12());
-        days.add(new Day13());
-        days.add(new Day14());
-        days.add(new Day15());
-        days.add(new Day16());
-        days.add(new Day17());
-        days.add(new Day18());
-        days.add(new Day19());
-        days.add(new Day20());
-        days.add(new Day21());
-        days.add(new Day22());
-        days.add(new Day23());
-        days.add(new Day24());
-        days.add(new Day25());
-
-        return days;
-    }
 }
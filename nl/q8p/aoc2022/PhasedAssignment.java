@@ -0,0 +1,57 @@
+package nl.q8p.aoc2022;
+
+import java.util.function.BiFunction;
+
+public interface PhasedAssignment<M> extends Assignment {
+
+    M parse(final Run run, final String input);
+
+    Object solve(final Run run, final M model);
+
+    default Object solve(final Run run, final M model, final AssignmentContext context) {
+        return solve(run, model);
+    }
+
+    @Override
+    default Object run(final Run run, final String input) {
+        return solve(run, parse(run, input));
+    }
+
+    static <M> PhasedAssignment<M> of(BiFunction<Run, String, M> parser, BiFunction<Run, M, Object> solver) {
+        return new PhasedAssignment<>() {
+            @Override
+            public M parse(Run run, String input) {
+                return parser.apply(run, input);
+            }
+
+            @Override
+            public Object solve(Run run, M model) {
+                return solver.apply(run, model);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    interface ContextualSolver<M> {
+        Object solve(Run run, M model, AssignmentContext context);
+    }
+
+    static <M> PhasedAssignment<M> of(BiFunction<Run, String, M> parser, ContextualSolver<M> solver) {
+        return new PhasedAssignment<>() {
+            @Override
+            public M parse(Run run, String input) {
+                return parser.apply(run, input);
+            }
+
+            @Override
+            public Object solve(Run run, M model) {
+                return solve(run, model, AssignmentContext.NONE);
+            }
+
+            @Override
+            public Object solve(Run run, M model, AssignmentContext context) {
+                return solver.solve(run, model, context);
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package nl.q8p.aoc2022;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+final class Phases {
+    private final Map<String, Samples> samples = new LinkedHashMap<>();
+
+    <T> T time(String phase, Supplier<T> function) {
+        var start = System.nanoTime();
+        var result = function.get();
+        samples.computeIfAbsent(phase, p -> new Samples()).add(System.nanoTime() - start);
+
+        return result;
+    }
+
+    Map<String, Statistics> statistics() {
+        var result = new LinkedHashMap<String, Statistics>();
+        samples.forEach((phase, phaseSamples) -> result.put(phase, phaseSamples.statistics()));
+
+        return result;
+    }
+
+    static final class Samples {
+        private long[] nanos = new long[16];
+        private int count;
+
+        void add(long sample) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, nanos.length * 2);
+            }
+            nanos[count++] = sample;
+        }
+
+        int count() {
+            return count;
+        }
+
+        Statistics statistics() {
+            return Statistics.of(Arrays.copyOf(nanos, count));
+        }
+    }
+}
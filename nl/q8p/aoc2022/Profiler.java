@@ -0,0 +1,149 @@
+package nl.q8p.aoc2022;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.LongStream;
+
+// Samples the stacks of the thread running an assignment plus the common pool workers, which do the work of parallel streams,
+// and writes them in the collapsed format of flamegraph.pl ("frame;frame;frame count").
+// Only threads that are RUNNABLE are counted, so idle workers and threads waiting on a join do not show up.
+// When assignments run concurrently (--parallel) the workers are shared, so a worker sample only counts for an assignment when its
+// stack is in the package of the assignment's day; worker time spent purely in JDK code then goes unattributed, and when both
+// assignments of a day run at once their worker samples count for both.
+record Profiler(Path directory, long intervalMillis, boolean concurrent) {
+    private static final Logger LOG = Logger.getLogger(Profiler.class.getName());
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final String COMMON_POOL_WORKER = "ForkJoinPool.commonPool-worker-";
+
+    static Profiler of(Arguments arguments) {
+        final var directory = arguments.string("profile");
+
+        if (directory == null) {
+            return null;
+        }
+
+        final var intervalMillis = arguments.integer("profile-interval", 10);
+        if (intervalMillis < 1) {
+            throw new Arguments.UsageException("--profile-interval needs at least 1 millisecond, e.g. --profile-interval=10");
+        }
+
+        return new Profiler(Path.of(directory), intervalMillis, arguments.flag("parallel"));
+    }
+
+    <T> T profile(String name, Day day, Supplier<T> function) {
+        final var sampler = new Sampler(Thread.currentThread().getId(), intervalMillis, concurrent ? day.getClass().getPackageName() + "." : null);
+        final var thread = new Thread(sampler, "profiler-" + name);
+        thread.setDaemon(true);
+        thread.start();
+
+        try {
+            return function.get();
+        } finally {
+            sampler.running = false;
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            write(name.replace('#', '-') + ".collapsed", sampler);
+        }
+    }
+
+    private void write(String fileName, Sampler sampler) {
+        final var file = directory.resolve(fileName);
+
+        try {
+            Files.createDirectories(directory);
+            Files.write(file, sampler.stacks.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(stack -> stack.getKey() + " " + stack.getValue())
+                .toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        LOG.info(() -> "  PROFILE   : " + sampler.samples + " samples in " + file);
+    }
+
+    private static final class Sampler implements Runnable {
+        private final long target;
+        private final long intervalMillis;
+        // only worker stacks in this package are counted, or all of them when null
+        private final String dayPackage;
+        private final Map<String, Long> stacks = new HashMap<>();
+        private volatile boolean running = true;
+        private long samples;
+
+        private Sampler(long target, long intervalMillis, String dayPackage) {
+            this.target = target;
+            this.intervalMillis = intervalMillis;
+            this.dayPackage = dayPackage;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                sample();
+                try {
+                    Thread.sleep(intervalMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void sample() {
+            final var ids = LongStream.concat(LongStream.of(target), commonPoolWorkers()).toArray();
+
+            for (var info : THREADS.getThreadInfo(ids, Integer.MAX_VALUE)) {
+                if (info != null && info.getThreadState() == Thread.State.RUNNABLE && info.getStackTrace().length > 0 && isAttributable(info)) {
+                    stacks.merge(collapse(info), 1L, Long::sum);
+                    samples++;
+                }
+            }
+        }
+
+        private boolean isAttributable(ThreadInfo info) {
+            return info.getThreadId() == target || dayPackage == null
+                || Arrays.stream(info.getStackTrace()).anyMatch(frame -> frame.getClassName().startsWith(dayPackage));
+        }
+
+        private static LongStream commonPoolWorkers() {
+            return Arrays.stream(THREADS.getThreadInfo(THREADS.getAllThreadIds(), 0))
+                .filter(info -> info != null && info.getThreadName().startsWith(COMMON_POOL_WORKER))
+                .mapToLong(ThreadInfo::getThreadId);
+        }
+
+        private static String collapse(ThreadInfo info) {
+            final var frames = info.getStackTrace();
+            final var stack = new StringBuilder();
+
+            // root first
+            for (var i = frames.length - 1; i >= 0; i--) {
+                if (!stack.isEmpty()) {
+                    stack.append(';');
+                }
+                stack.append(className(frames[i].getClassName())).append('.').append(frames[i].getMethodName());
+            }
+
+            return stack.toString();
+        }
+
+        // strips the address of hidden classes, e.g. Main$$Lambda$26/0x00007ff4a5008240, so stacks merge across runs
+        private static String className(String className) {
+            final var hidden = className.indexOf('/');
+
+            return hidden == -1 ? className : className.substring(0, hidden);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package nl.q8p.aoc2022;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import nl.q8p.aoc2022.Assignment.Run;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+// Solves inputs posted to http://localhost:PORT/DayXX/FIRST (or /SECOND, optionally ?run=EXAMPLE) in a long-lived JVM,
+// so the days stay loaded and compiled between requests. Solving happens on a bounded pool; a request that does not fit
+// in it or its queue is answered with 503 right away. A solve that passes its deadline is interrupted and answered with 504.
+// Metrics per assignment are available over JMX (see DayMetrics).
+final class Server {
+    private static final Logger LOG = Logger.getLogger(Server.class.getName());
+
+    private final ThreadPoolExecutor solvers;
+    private final long timeoutNanos;
+    private final HttpServer httpServer;
+
+    Server(int port, int threads, int queue, long timeoutNanos) throws IOException {
+        this.timeoutNanos = timeoutNanos;
+        this.solvers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue));
+        this.httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+
+        // exchange threads only wait for the solvers, which are bounded
+        httpServer.setExecutor(Executors.newCachedThreadPool());
+        httpServer.createContext("/", this::handle);
+    }
+
+    static Server of(Arguments arguments) {
+        final var threads = arguments.integer("threads", Runtime.getRuntime().availableProcessors());
+
+        try {
+            return new Server(arguments.integer("port", 8022), threads, arguments.integer("queue", 4 * threads), TimeUnit.SECONDS.toNanos(arguments.integer("timeout", 60)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void start() {
+        // the server runs until the JVM stops, so this is not reset
+        Benchmark.concurrent(solvers.getMaximumPoolSize() > 1);
+        httpServer.start();
+        LOG.info(() -> "Listening on http://" + httpServer.getAddress().getHostString() + ":" + httpServer.getAddress().getPort()
+            + "/DayXX/FIRST with " + solvers.getMaximumPoolSize() + " solvers");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, 405, "{\"error\":\"POST an input to /DayXX/FIRST or /DayXX/SECOND\"}");
+                return;
+            }
+
+            final var path = exchange.getRequestURI().getPath().split("/");
+            final var day = path.length == 3 ? Days.named(path[1]).orElse(null) : null;
+            final var assignmentType = path.length == 3 ? assignmentType(path[2]) : null;
+            if (day == null || assignmentType == null) {
+                respond(exchange, 404, "{\"error\":\"unknown assignment " + json(exchange.getRequestURI().getPath()) + "\"}");
+                return;
+            }
+
+            final var run = run(exchange.getRequestURI());
+            final var input = new Input(ByteBuffer.wrap(exchange.getRequestBody().readAllBytes()));
+            final var dayRunner = new DayRunner(day, assignmentType, timeoutNanos);
+
+            final var metrics = DayMetrics.of(dayRunner);
+
+            final DayRunner.Duration<String> duration;
+            Future<DayRunner.Duration<String>> solving = null;
+            try {
+                solving = solvers.submit(() -> dayRunner.measure(run, input, Benchmark.SINGLE));
+                duration = timeoutNanos > 0 ? solving.get(timeoutNanos, TimeUnit.NANOSECONDS) : solving.get();
+            } catch (RejectedExecutionException e) {
+                respond(exchange, 503, "{\"error\":\"all solvers are busy\"}");
+                return;
+            } catch (TimeoutException e) {
+                // interrupting the solver makes AssignmentContext.checkCancelled stop it
+                solving.cancel(true);
+                metrics.failed(e);
+                respond(exchange, 504, "{\"error\":\"deadline of " + TimeUnit.NANOSECONDS.toSeconds(timeoutNanos) + " s passed\"}");
+                return;
+            } catch (ExecutionException e) {
+                metrics.failed(e.getCause());
+                respond(exchange, e.getCause() instanceof AssignmentCancelledException ? 504 : 500, "{\"error\":\"" + json(String.valueOf(e.getCause())) + "\"}");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                respond(exchange, 503, "{\"error\":\"interrupted\"}");
+                return;
+            }
+
+            metrics.record(duration);
+            LOG.fine(() -> dayRunner.key() + " " + run + ": " + duration.nanosAsMs());
+
+            respond(exchange, 200, "{\"assignment\":\"" + dayRunner.key() + "\""
+                + ",\"run\":\"" + run + "\""
+                + ",\"answer\":\"" + json(duration.result()) + "\""
+                + ",\"nanos\":" + duration.nanos()
+                + (duration.allocations() == null ? "" : ",\"allocated\":" + duration.allocations().p50())
+                + "}");
+        }
+    }
+
+    private static DayRunner.AssignmentType assignmentType(String name) {
+        return Arrays.stream(DayRunner.AssignmentType.values()).filter(type -> type.name().equals(name)).findFirst().orElse(null);
+    }
+
+    private static Run run(URI uri) {
+        return uri.getQuery() != null && uri.getQuery().equals("run=EXAMPLE") ? Run.EXAMPLE : Run.REAL;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        final var bytes = (body + "\n").getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static String json(String string) {
+        final var result = new StringBuilder();
+
+        for (var c : string.toCharArray()) {
+            switch (c) {
+                case '"' -> result.append("\\\"");
+                case '\\' -> result.append("\\\\");
+                case '\n' -> result.append("\\n");
+                default -> {
+                    if (c < 0x20) {
+                        result.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        result.append(c);
+                    }
+                }
+            }
+        }
+
+        return result.toString();
+    }
+}
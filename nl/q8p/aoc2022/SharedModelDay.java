@@ -0,0 +1,24 @@
+package nl.q8p.aoc2022;
+
+import nl.q8p.aoc2022.Assignment.Run;
+
+// A day whose assignments solve from the same model; when both run on the same input in one process the input is parsed once.
+// The model is shared between the assignments, so solving must not modify it. Long solves check the context (see AssignmentContext).
+public interface SharedModelDay<M> extends Day {
+
+    M parse(final Run run, final String input);
+
+    Object first(final Run run, final M model, final AssignmentContext context);
+
+    Object second(final Run run, final M model, final AssignmentContext context);
+
+    @Override
+    default Assignment first() {
+        return PhasedAssignment.<M>of(this::parse, this::first);
+    }
+
+    @Override
+    default Assignment second() {
+        return PhasedAssignment.<M>of(this::parse, this::second);
+    }
+}
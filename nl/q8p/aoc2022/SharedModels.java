@@ -0,0 +1,46 @@
+package nl.q8p.aoc2022;
+
+import nl.q8p.aoc2022.Assignment.Run;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// What the selected assignments of one day share: the models of a SharedModelDay per run and input, and a generated input.
+// Input has identity equality and is loaded once by InputStore (or generated once here), so FIRST and SECOND find the same model.
+// Everything is dropped when the last assignment of the day is done, so models do not stay on the heap while other days run.
+final class SharedModels {
+    private record Key(Run run, Input input) {}
+
+    private final Map<Key, Object> models = new ConcurrentHashMap<>();
+    private final AtomicInteger users;
+
+    private Input generated;
+
+    SharedModels(int users) {
+        this.users = new AtomicInteger(users);
+    }
+
+    Object get(Run run, Input input, Supplier<Object> parser) {
+        return models.computeIfAbsent(new Key(run, input), key -> parser.get());
+    }
+
+    synchronized Input generated(Supplier<Input> generator) {
+        if (generated == null) {
+            generated = generator.get();
+        }
+
+        return generated;
+    }
+
+    void done() {
+        if (users.decrementAndGet() == 0) {
+            models.clear();
+
+            synchronized (this) {
+                generated = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package nl.q8p.aoc2022;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+record Statistics(int count, long min, double mean, long p50, long p90, long p99, long max, double stddev, long[] samples) {
+
+    static Statistics of(long... nanos) {
+        if (nanos.length == 0) {
+            throw new IllegalArgumentException("no samples");
+        }
+
+        var sorted = nanos.clone();
+        Arrays.sort(sorted);
+
+        var mean = Arrays.stream(sorted).average().orElseThrow();
+        var variance = Arrays.stream(sorted).mapToDouble(n -> (n - mean) * (n - mean)).sum() / sorted.length;
+
+        return new Statistics(
+            sorted.length,
+            sorted[0],
+            mean,
+            percentile(sorted, 50),
+            percentile(sorted, 90),
+            percentile(sorted, 99),
+            sorted[sorted.length - 1],
+            Math.sqrt(variance),
+            sorted
+        );
+    }
+
+    static Statistics merge(List<Statistics> statistics) {
+        return of(statistics.stream().flatMapToLong(s -> Arrays.stream(s.samples)).toArray());
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        var rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    // median absolute deviation scaled to estimate the standard deviation, unlike stddev hardly affected by a few slow outliers
+    double spread() {
+        final var deviations = Arrays.stream(samples).map(sample -> Math.abs(sample - p50)).sorted().toArray();
+
+        return 1.4826 * percentile(deviations, 50);
+    }
+
+    static String asMs(double nanos) {
+        return new DecimalFormat("#0.00", new DecimalFormatSymbols(Locale.US)).format(nanos / 1_000_000);
+    }
+
+    static String asBytes(double bytes) {
+        final var units = new String[] { "B", "KB", "MB", "GB", "TB" };
+
+        var unit = 0;
+        while (bytes >= 1024 && unit < units.length - 1) {
+            bytes /= 1024;
+            unit++;
+        }
+
+        return new DecimalFormat(unit == 0 ? "#0" : "#0.0", new DecimalFormatSymbols(Locale.US)).format(bytes) + " " + units[unit];
+    }
+
+    String summary() {
+        return "n=" + count + " min " + asMs(min) + " mean " + asMs(mean) + " max " + asMs(max) + " sd " + asMs(stddev) + " ms";
+    }
+
+    String percentiles() {
+        return "p50 " + asMs(p50) + " p90 " + asMs(p90) + " p99 " + asMs(p99) + " ms";
+    }
+}
@@ -0,0 +1,84 @@
+package nl.q8p.aoc2022;
+
+import java.util.Locale;
+import java.util.logging.Logger;
+
+// Runs an assignment on generated inputs of doubling size and fits time and allocations against the input length n
+// in a log-log plot: the slope is the exponent k of n^k, so 1 is linear and 2 is quadratic.
+// Small inputs are dominated by constant overhead, so the slope of the last doubling is reported as well.
+record Sweep(int start, int steps, long seed) {
+    private static final Logger LOG = Logger.getLogger(Sweep.class.getName());
+
+    private static final double SUPERLINEAR = 1.5;
+
+    static Sweep of(Arguments arguments) {
+        return arguments.string("sweep") == null ? null : new Sweep(arguments.positive("sweep"), Math.max(2, arguments.integer("sweep-steps", 5)), arguments.integer("seed", 1));
+    }
+
+    void run(DayRunner dayRunner, Benchmark benchmark) {
+        dayRunner.printHeader();
+
+        final var lengths = new double[steps];
+        final var nanos = new double[steps];
+        final var allocated = new double[steps];
+
+        for (var step = 0; step < steps; step++) {
+            final var size = start << step;
+
+            try {
+                final var input = new Generation(size, seed).input(dayRunner.day());
+                final var duration = dayRunner.measure(Assignment.Run.REAL, input, benchmark);
+
+                lengths[step] = input.size();
+                nanos[step] = duration.nanos();
+                allocated[step] = duration.allocations() == null ? 0 : duration.allocations().p50();
+
+                LOG.info(() -> String.format(Locale.US, "  SIZE %-6d: %10s input %10s  %s", size, Statistics.asBytes(input.size()), duration.allocations() == null ? "" : Statistics.asBytes(duration.allocations().p50()), duration.nanosAsMs()));
+            } catch (final RuntimeException e) {
+                LOG.severe(() -> dayRunner.key() + ": sweep stopped at size " + size + ": " + e);
+                return;
+            }
+        }
+
+        final var timeExponent = exponent(lengths, nanos);
+        final var allocatedExponent = exponent(lengths, allocated);
+        final var lastTimeExponent = exponent(last(lengths), last(nanos));
+        final var lastAllocatedExponent = exponent(last(lengths), last(allocated));
+
+        LOG.info(() -> String.format(Locale.US, "  EXPONENT  : time n^%.2f (last n^%.2f) | allocated n^%.2f (last n^%.2f)", timeExponent, lastTimeExponent, allocatedExponent, lastAllocatedExponent));
+        if (Math.max(timeExponent, lastTimeExponent) > SUPERLINEAR) {
+            LOG.warning(() -> dayRunner.key() + ": time grows superlinear in the input length (n^" + String.format(Locale.US, "%.2f", Math.max(timeExponent, lastTimeExponent)) + ")");
+        }
+    }
+
+    private static double[] last(double[] values) {
+        return new double[] { values[values.length - 2], values[values.length - 1] };
+    }
+
+    // least squares slope of log(y) against log(x), skipping points without a measurement
+    static double exponent(double[] x, double[] y) {
+        var count = 0;
+        var sumX = 0.0;
+        var sumY = 0.0;
+        var sumXX = 0.0;
+        var sumXY = 0.0;
+
+        for (var i = 0; i < x.length; i++) {
+            if (x[i] <= 0 || y[i] <= 0) {
+                continue;
+            }
+
+            final var logX = Math.log(x[i]);
+            final var logY = Math.log(y[i]);
+            count++;
+            sumX += logX;
+            sumY += logY;
+            sumXX += logX * logX;
+            sumXY += logX * logY;
+        }
+
+        final var denominator = count * sumXX - sumX * sumX;
+
+        return count < 2 || denominator == 0 ? Double.NaN : (count * sumXY - sumX * sumY) / denominator;
+    }
+}
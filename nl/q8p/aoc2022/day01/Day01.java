@@ -2,8 +2,14 @@ package nl.q8p.aoc2022.day01;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
+import nl.q8p.aoc2022.PhasedAssignment;
+import nl.q8p.aoc2022.utils.Groups;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Optional;
 
 import static java.util.Arrays.stream;
 
@@ -11,26 +17,60 @@ public class Day01 implements Day {
 
     @Override
     public Assignment first() {
-        return (run, input) -> stream(input.split("\\n\\n")) // group for each Elve
-            .mapToInt(group -> stream(group.split("\\n")) // list of calories (as String)
-                .mapToInt(Integer::parseInt) // list of calories (as Int)
-                .sum() // sum of calories of elve
-            ) // total of calories for each elve
-            .max() // get the max
-            .orElse(0);
+        return PhasedAssignment.of(
+            (run, input) -> parse(input),
+            (run, elves) -> stream(elves)
+                .mapToInt(calories -> stream(calories).sum()) // total of calories for each elve
+                .max() // get the max
+                .orElse(0)
+        );
     }
 
     @Override
     public Assignment second() {
-        return (run, input) -> 
-            stream(input.split("\\n\\n")) // group for each Elve
-            .map(group -> stream(group.split("\\n")) // list of calories (as String)
-                .mapToInt(Integer::parseInt) // list of calories (as Int)
-                .sum() // sum of calories
-            )
-            .sorted(Collections.reverseOrder()) // sort descending
-            .mapToInt(Integer::intValue)
-            .limit(3) // first three
-            .sum(); // sum
+        return PhasedAssignment.of(
+            (run, input) -> parse(input),
+            (run, elves) -> stream(elves)
+                .map(calories -> stream(calories).sum()) // sum of calories
+                .sorted(Collections.reverseOrder()) // sort descending
+                .mapToInt(Integer::intValue)
+                .limit(3) // first three
+                .sum() // sum
+        );
+    }
+
+    private static int[][] parse(String input) {
+        var elves = new ArrayList<int[]>();
+
+        for (var groups = new Groups(input); groups.next(); ) { // group for each Elve
+            var calories = new int[16];
+            var count = 0;
+
+            for (var lines = groups.lines(); lines.next(); ) { // list of calories
+                if (count == calories.length) {
+                    calories = Arrays.copyOf(calories, count * 2);
+                }
+                calories[count++] = lines.parseInt();
+            }
+
+            elves.add(Arrays.copyOf(calories, count));
+        }
+
+        return elves.toArray(int[][]::new);
+    }
+
+    // size elves carrying 1 to 15 snacks each
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var input = new StringBuilder();
+            for (var elf = 0; elf < size; elf++) {
+                if (elf > 0) {
+                    input.append('\n');
+                }
+                random.ints(1 + random.nextInt(15), 1000, 60000).forEach(calories -> input.append(calories).append('\n'));
+            }
+            return input.toString();
+        });
     }
 }
@@ -1,45 +1,64 @@
 package nl.q8p.aoc2022.day02;
 
-import nl.q8p.aoc2022.Assignment;
+import nl.q8p.aoc2022.BytesAssignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
+import nl.q8p.aoc2022.utils.AsciiSequence;
+import nl.q8p.aoc2022.utils.Lines;
 
-import static java.util.Arrays.stream;
+import java.util.Optional;
+import java.util.function.IntBinaryOperator;
 
 public class Day02 implements Day {
 
     @Override
-    public Assignment first() {
-        return (run, input) -> stream(input.split("\\n")) // plays
-                .map(play -> stream(play.split(" ")).mapToInt(s -> s.charAt(0)).toArray()) // two chars in an array
-                .mapToInt(play ->
-                        play[1] - 'X' + 1 + // points for the move
-                        (((play[1] - 'X') - (play[0] - 'A') + 3 + 1) % 3) * 3) // points for winning, loosing or draw
-                .sum();
+    public BytesAssignment first() {
+        return (run, input) -> score(new AsciiSequence(input), (opponent, me) ->
+                me - 'X' + 1 + // points for the move
+                (((me - 'X') - (opponent - 'A') + 3 + 1) % 3) * 3); // points for winning, loosing or draw
     }
 
     @Override
-    public Assignment second() {
-        return (run, input) -> stream(input.split("\\n")) // plays
-                .map(play ->play.split(" ")) // two strings in an array
-                .mapToInt(play ->
-                        switch (play[1]) {
-                            case "X" -> switch (play[0]) {
-                                case "A" -> 3;
-                                case "B" -> 1;
-                                default -> 2;
-                            };
-                            case "Y" -> 3 + switch (play[0]) {
-                                case "A" -> 1;
-                                case "B" -> 2;
-                                default -> 3;
-                            };
-                            default -> 6 + switch (play[0]) {
-                                case "A" -> 2;
-                                case "B" -> 3;
-                                default -> 1;
-                            };
-                        }
-                )
-                .sum();
+    public BytesAssignment second() {
+        return (run, input) -> score(new AsciiSequence(input), (opponent, outcome) ->
+                switch (outcome) {
+                    case 'X' -> switch (opponent) {
+                        case 'A' -> 3;
+                        case 'B' -> 1;
+                        default -> 2;
+                    };
+                    case 'Y' -> 3 + switch (opponent) {
+                        case 'A' -> 1;
+                        case 'B' -> 2;
+                        default -> 3;
+                    };
+                    default -> 6 + switch (opponent) {
+                        case 'A' -> 2;
+                        case 'B' -> 3;
+                        default -> 1;
+                    };
+                });
+    }
+
+    private static int score(CharSequence plays, IntBinaryOperator points) {
+        var total = 0;
+
+        for (var play = new Lines(plays); play.next(); ) { // "<opponent> <me>"
+            total += points.applyAsInt(play.charAt(0), play.charAt(2));
+        }
+
+        return total;
+    }
+
+    // size rounds
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var input = new StringBuilder();
+            for (var round = 0; round < size; round++) {
+                input.append((char) ('A' + random.nextInt(3))).append(' ').append((char) ('X' + random.nextInt(3))).append('\n');
+            }
+            return input.toString();
+        });
     }
 }
@@ -2,39 +2,128 @@ package nl.q8p.aoc2022.day03;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
 import nl.q8p.aoc2022.utils.GroupCollector;
+import nl.q8p.aoc2022.utils.Lines;
 
-import java.util.HashSet;
-import java.util.stream.Collectors;
-
-import static java.util.Arrays.stream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.LongStream;
 
 public class Day03 implements Day {
 
     @Override
     public Assignment first() {
-        return (run, input) -> stream(input.split("\\n"))
-            .map(rucksack -> new String[] { rucksack.substring(0, rucksack.length() / 2), rucksack.substring(rucksack.length() / 2)})
-            .mapToInt(compartments -> compartments[0].chars().filter(c0 -> compartments[1].chars().anyMatch(c1 -> c0 == c1)).findFirst().orElseThrow())
-            .map(foundInBoth -> foundInBoth - (Character.isLowerCase((char)foundInBoth) ? 'a' - 1 : 'A' - 27))
-            .sum();
+        return (run, input) -> {
+            var sum = 0;
+
+            for (var rucksack = new Lines(input); rucksack.next(); ) {
+                var half = rucksack.length() / 2;
+                var foundInBoth = 0;
+
+                for (var i = 0; i < half && foundInBoth == 0; i++) {
+                    for (var j = half; j < rucksack.length(); j++) {
+                        if (rucksack.charAt(i) == rucksack.charAt(j)) {
+                            foundInBoth = rucksack.charAt(i);
+                            break;
+                        }
+                    }
+                }
+
+                sum += priority(foundInBoth);
+            }
+
+            return sum;
+        };
     }
 
     @Override
     public Assignment second() {
-        return (run, input) -> stream(input.split("\\n"))
-            .map(rucksack -> rucksack.chars().boxed().collect(Collectors.toSet()))
-            .collect(GroupCollector.withSize(3))
-            .stream()
-            .map(group -> group.stream()
-                    .reduce((one, other) -> {
-                        var result = new HashSet<>(one);
-                        result.retainAll(other);
-                        return result;
-                    })
-                    .orElseThrow())
-            .mapToInt(foundInAll -> foundInAll.iterator().next())
-            .map(foundInAll -> foundInAll - (Character.isLowerCase((char)foundInAll) ? 'a' - 1 : 'A' - 27))
-            .sum();
+        return (run, input) -> {
+            var rucksacks = LongStream.builder();
+
+            for (var rucksack = new Lines(input); rucksack.next(); ) {
+                rucksacks.add(items(rucksack));
+            }
+
+            var groups = GroupCollector.longs(rucksacks.build(), 3);
+            var sum = 0;
+
+            for (var group = 0; group < groups.count(); group++) {
+                var foundInAll = -1L;
+
+                for (var index = 0; index < groups.size(group); index++) {
+                    foundInAll &= groups.get(group, index);
+                }
+
+                sum += Long.numberOfTrailingZeros(foundInAll);
+            }
+
+            return sum;
+        };
+    }
+
+    // the items in a rucksack as a bit set, with the priority of an item as its bit index
+    private static long items(CharSequence rucksack) {
+        var items = 0L;
+
+        for (var i = 0; i < rucksack.length(); i++) {
+            items |= 1L << priority(rucksack.charAt(i));
+        }
+
+        return items;
+    }
+
+    private static int priority(int item) {
+        return item - (Character.isLowerCase((char)item) ? 'a' - 1 : 'A' - 27);
+    }
+
+    // every rucksack holds one item in both compartments, and every group of three one item in all three rucksacks: the items of a rucksack
+    // come from its own part of the alphabet, with the compartments using different halves of it, plus the badge of the group
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var alphabet = new ArrayList<Character>();
+            for (var c = 'a'; c <= 'z'; c++) {
+                alphabet.add(c);
+                alphabet.add(Character.toUpperCase(c));
+            }
+
+            final var input = new StringBuilder();
+            for (var group = 0; group < (size + 2) / 3; group++) {
+                Collections.shuffle(alphabet, random);
+                final var badge = alphabet.get(0);
+
+                for (var elf = 0; elf < 3; elf++) {
+                    final var own = alphabet.subList(1 + elf * 17, 1 + (elf + 1) * 17);
+                    final var length = 2 + random.nextInt(15);
+                    final var badgeLeft = random.nextBoolean();
+
+                    input.append(compartment(own.get(0), badgeLeft ? badge : null, own.subList(1, 9), length, random));
+                    input.append(compartment(own.get(0), badgeLeft ? null : badge, own.subList(9, 17), length, random));
+                    input.append('\n');
+                }
+            }
+            return input.toString();
+        });
+    }
+
+    private static String compartment(char shared, Character badge, List<Character> others, int length, Random random) {
+        final var items = new ArrayList<Character>();
+        items.add(shared);
+        if (badge != null) {
+            items.add(badge);
+        }
+        while (items.size() < length) {
+            items.add(others.get(random.nextInt(others.size())));
+        }
+        Collections.shuffle(items, random);
+
+        final var compartment = new StringBuilder();
+        items.forEach(compartment::append);
+        return compartment.toString();
     }
 }
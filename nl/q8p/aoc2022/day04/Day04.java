@@ -2,18 +2,19 @@ package nl.q8p.aoc2022.day04;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
+import nl.q8p.aoc2022.utils.Lines;
 
-import static java.util.Arrays.stream;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 public class Day04 implements Day {
 
     record SectionRange(int from, int until) {
-        static SectionRange parse(String string) {
-            var parts = stream(string.split("-"))
-                .mapToInt(Integer::parseInt)
-                .toArray();
+        static SectionRange parse(Lines line, int from, int to) {
+            var dash = line.indexOf('-', from);
 
-            return new SectionRange(parts[0], parts[1]);
+            return new SectionRange(line.parseInt(from, dash), line.parseInt(dash + 1, to));
         }
 
         boolean contains(int section) {
@@ -30,28 +31,48 @@ public class Day04 implements Day {
     }
 
     record Pair(SectionRange left, SectionRange right) {
-        static Pair parse(String string) {
-            var sections = stream(string.split(","))
-                .map(SectionRange::parse)
-                .toList();
+        static Pair parse(Lines line) {
+            var comma = line.indexOf(',');
 
-            return new Pair(sections.get(0), sections.get(1));
+            return new Pair(SectionRange.parse(line, 0, comma), SectionRange.parse(line, comma + 1, line.length()));
         }
     }
 
     @Override
     public Assignment first() {
-        return (run, input) -> stream(input.split("\\n"))
-            .map(Pair::parse)
-            .filter(p -> p.left.contains(p.right) || p.right.contains(p.left))
-            .count();
+        return (run, input) -> count(input, p -> p.left.contains(p.right) || p.right.contains(p.left));
     }
 
     @Override
     public Assignment second() {
-        return (run, input) -> stream(input.split("\\n"))
-            .map(Pair::parse)
-            .filter(p -> p.left.overlaps(p.right))
-            .count();
+        return (run, input) -> count(input, p -> p.left.overlaps(p.right));
+    }
+
+    private static long count(String input, Predicate<Pair> predicate) {
+        var count = 0L;
+
+        for (var line = new Lines(input); line.next(); ) {
+            if (predicate.test(Pair.parse(line))) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    // size pairs of section ranges within 1-99
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var input = new StringBuilder();
+            for (var pair = 0; pair < size; pair++) {
+                for (var elf = 0; elf < 2; elf++) {
+                    final var from = 1 + random.nextInt(99);
+                    input.append(elf == 0 ? "" : ",").append(from).append('-').append(from + random.nextInt(100 - from));
+                }
+                input.append('\n');
+            }
+            return input.toString();
+        });
     }
 }
@@ -2,10 +2,13 @@ package nl.q8p.aoc2022.day05;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
+import nl.q8p.aoc2022.utils.Numbers;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collector;
 
 import static java.util.Arrays.stream;
@@ -13,15 +16,17 @@ import static java.util.Arrays.stream;
 public class Day05 implements Day {
 
     record Move(int count, int from, int to) {
-        static Move parse(String string) {
-            var parts = string.split(" ");
+        static Move parse(String string, int[] numbers) {
+            // move <count> from <from> to <to>
+            Numbers.ints(string, numbers);
 
-            return new Move(Integer.parseInt(parts[1]), Integer.parseInt(parts[3]), Integer.parseInt(parts[5]));
+            return new Move(numbers[0], numbers[1], numbers[2]);
         }
     }
 
     static class Supplies9000 {
         private final List<LinkedList<Character>> stacks = new ArrayList<>();
+        private final int[] numbers = new int[3];
 
         void handle(String instruction) {
             if (instruction.indexOf('[') != -1) {
@@ -40,7 +45,7 @@ public class Day05 implements Day {
                     }
                 }
             } else if (instruction.startsWith("move")) {
-                var move = Move.parse(instruction);
+                var move = Move.parse(instruction, numbers);
 
                 for (var i = 0; i < move.count; i++) {
                     stacks.get(move.to - 1).add(stacks.get(move.from - 1).removeLast());
@@ -51,6 +56,7 @@ public class Day05 implements Day {
 
     static class Supplies9001 {
         private final List<List<Character>> stacks = new ArrayList<>();
+        private final int[] numbers = new int[3];
 
         void handle(String instruction) {
             if (instruction.indexOf('[') != -1) {
@@ -69,7 +75,7 @@ public class Day05 implements Day {
                     }
                 }
             } else if (instruction.startsWith("move")) {
-                var move = Move.parse(instruction);
+                var move = Move.parse(instruction, numbers);
 
                 var from = stacks.get(move.from - 1);
 
@@ -109,4 +115,41 @@ public class Day05 implements Day {
                     StringBuilder::toString));
         };
     }
+
+    // nine stacks and size moves; a move leaves at least one crate behind, so every stack has a top crate at the end
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var heights = new int[9];
+            for (var stack = 0; stack < heights.length; stack++) {
+                heights[stack] = 3 + random.nextInt(6);
+            }
+
+            final var input = new StringBuilder();
+            for (var level = stream(heights).max().orElseThrow() - 1; level >= 0; level--) {
+                for (var stack = 0; stack < heights.length; stack++) {
+                    input.append(stack == 0 ? "" : " ").append(heights[stack] > level ? "[" + (char) ('A' + random.nextInt(26)) + "]" : "   ");
+                }
+                input.append('\n');
+            }
+            for (var stack = 0; stack < heights.length; stack++) {
+                input.append(' ').append(stack + 1).append(stack == heights.length - 1 ? " \n\n" : "  ");
+            }
+
+            for (var move = 0; move < size; move++) {
+                int from;
+                do {
+                    from = random.nextInt(heights.length);
+                } while (heights[from] < 2);
+
+                final var to = (from + 1 + random.nextInt(heights.length - 1)) % heights.length;
+                final var count = 1 + random.nextInt(heights[from] - 1);
+                heights[from] -= count;
+                heights[to] += count;
+
+                input.append("move ").append(count).append(" from ").append(from + 1).append(" to ").append(to + 1).append('\n');
+            }
+            return input.toString();
+        });
+    }
 }
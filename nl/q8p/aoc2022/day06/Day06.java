@@ -1,26 +1,65 @@
 package nl.q8p.aoc2022.day06;
 
-import nl.q8p.aoc2022.Assignment;
+import nl.q8p.aoc2022.BytesAssignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
 
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 
 public class Day06 implements Day {
 
     @Override
-    public Assignment first() {
-        return (run, input) -> IntStream.range(4, input.length())
-            .filter(i -> input.substring(i - 4, i).chars().boxed().collect(Collectors.toSet()).size() == 4)
-            .findFirst()
-            .orElseThrow();
+    public BytesAssignment first() {
+        return (run, input) -> marker(input, 4);
     }
 
     @Override
-    public Assignment second() {
-        return (run, input) -> IntStream.range(14, input.length())
-            .filter(i -> input.substring(i - 14, i).chars().boxed().collect(Collectors.toSet()).size() == 14)
-            .findFirst()
-            .orElseThrow();
+    public BytesAssignment second() {
+        return (run, input) -> marker(input, 14);
+    }
+
+    private static int marker(ByteBuffer input, int size) {
+        var counts = new int[256];
+        var distinct = 0;
+
+        for (var i = input.position(); i < input.limit(); i++) {
+            if (counts[input.get(i) & 0xff]++ == 0) {
+                distinct++;
+            }
+
+            if (i - input.position() >= size && --counts[input.get(i - size) & 0xff] == 0) {
+                distinct--;
+            }
+
+            if (distinct == size) {
+                return i - input.position() + 1;
+            }
+        }
+
+        throw new NoSuchElementException("no marker of size " + size);
+    }
+
+    // a datastream of size random lowercase characters (at least 14), ending in 14 distinct ones so both markers exist
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var input = new StringBuilder();
+            for (var i = 14; i < size; i++) {
+                input.append((char) ('a' + random.nextInt(26)));
+            }
+
+            final var letters = new ArrayList<Character>();
+            for (var c = 'a'; c <= 'z'; c++) {
+                letters.add(c);
+            }
+            Collections.shuffle(letters, random);
+            letters.subList(0, 14).forEach(input::append);
+
+            return input.append('\n').toString();
+        });
     }
 }
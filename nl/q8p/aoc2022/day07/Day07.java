@@ -2,13 +2,17 @@ package nl.q8p.aoc2022.day07;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Random;
 import java.util.stream.Stream;
 
 public class Day07 implements Day {
@@ -145,4 +149,36 @@ public class Day07 implements Day {
                     .orElseThrow();
         };
     }
+
+    // size folders, each in a random earlier folder and holding up to 3 files
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var children = new ArrayList<List<Integer>>();
+            for (var folder = 0; folder < size; folder++) {
+                children.add(new ArrayList<>());
+                if (folder > 0) {
+                    children.get(random.nextInt(folder)).add(folder);
+                }
+            }
+
+            final var input = new StringBuilder("$ cd /\n");
+            list(0, children, random, input);
+            return input.toString();
+        });
+    }
+
+    private static void list(int folder, List<List<Integer>> children, Random random, StringBuilder input) {
+        input.append("$ ls\n");
+        children.get(folder).forEach(child -> input.append("dir d").append(child).append('\n'));
+        for (var file = random.nextInt(4); file > 0; file--) {
+            input.append(1 + random.nextInt(300000)).append(" f").append(file).append(".txt\n");
+        }
+
+        children.get(folder).forEach(child -> {
+            input.append("$ cd d").append(child).append('\n');
+            list(child, children, random, input);
+            input.append("$ cd ..\n");
+        });
+    }
 }
@@ -2,8 +2,10 @@ package nl.q8p.aoc2022.day08;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
 
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.stream.IntStream;
 
 public class Day08 implements Day {
@@ -71,4 +73,19 @@ public class Day08 implements Day {
             .orElseThrow();
         };
     }
+
+    // a forest of size by size trees
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var input = new StringBuilder();
+            for (var y = 0; y < size; y++) {
+                for (var x = 0; x < size; x++) {
+                    input.append((char) ('0' + random.nextInt(10)));
+                }
+                input.append('\n');
+            }
+            return input.toString();
+        });
+    }
 }
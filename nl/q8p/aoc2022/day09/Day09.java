@@ -2,9 +2,12 @@ package nl.q8p.aoc2022.day09;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
+import nl.q8p.aoc2022.utils.Lines;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.IntStream;
 
 public class Day09 implements Day {
@@ -82,6 +85,16 @@ public class Day09 implements Day {
         Move(Direction direction) {
             this.direction = direction;
         }
+
+        static Move of(char name) {
+            return switch (name) {
+                case 'R' -> R;
+                case 'U' -> U;
+                case 'L' -> L;
+                case 'D' -> D;
+                default -> throw new IllegalArgumentException("unknown move: " + name);
+            };
+        }
     }
 
     @Override
@@ -98,14 +111,25 @@ public class Day09 implements Day {
         var history = new LinkedList<Plank>();
         history.add(new Plank(ropeCount));
 
-        for (String line : input.split("\\n")) {
-            String[] parts = line.split(" ");
-            var direction = Move.valueOf(parts[0]).direction;
-            var steps = Integer.parseInt(parts[1]);
+        for (var line = new Lines(input); line.next(); ) {
+            var direction = Move.of(line.charAt(0)).direction;
+            var steps = line.parseInt(2, line.length());
 
             IntStream.range(0, steps).forEach(s -> history.add(history.getLast().move(direction)));
         }
 
         return history.stream().map(Plank::tail).distinct().count();
     }
+
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var moves = Move.values();
+            final var input = new StringBuilder();
+            for (var motion = 0; motion < size; motion++) {
+                input.append(moves[random.nextInt(moves.length)]).append(' ').append(1 + random.nextInt(10)).append('\n');
+            }
+            return input.toString();
+        });
+    }
 }
@@ -2,9 +2,11 @@ package nl.q8p.aoc2022.day10;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
+import nl.q8p.aoc2022.utils.Lines;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Optional;
 import java.util.stream.Collector;
 import java.util.stream.IntStream;
 
@@ -12,22 +14,30 @@ public class Day10 implements Day {
 
     @Override
     public Assignment first() {
-        return (run, input) -> IntStream.range(0, 6).map(i -> (i * 40 + 20) * cpu(input).get((i * 40 + 20) - 1)).sum();
+        return (run, input) -> {
+            var cpu = cpu(input);
+
+            return IntStream.range(0, 6).map(i -> (i * 40 + 20) * cpu.get((i * 40 + 20) - 1)).sum();
+        };
     }
 
     @Override
     public Assignment second() {
-        return (run, input) -> String.join("\n", IntStream.rangeClosed(1, 240).mapToObj(cycle -> {
-            var position = (cycle - 1) % 40;
+        return (run, input) -> {
+            var cpu = cpu(input);
+
+            return String.join("\n", IntStream.rangeClosed(1, 240).mapToObj(cycle -> {
+                var position = (cycle - 1) % 40;
 
-            var x = cpu(input).get(cycle - 1);
+                var x = cpu.get(cycle - 1);
 
-            return IntStream.rangeClosed(x - 1, x + 1).anyMatch(i -> i == position) ? '#' : '.';
-        }).collect(Collector.of(
-                StringBuilder::new,
-                StringBuilder::append,
-                StringBuilder::append,
-                StringBuilder::toString)).split("(?<=\\G.{" + 40 + "})"));
+                return IntStream.rangeClosed(x - 1, x + 1).anyMatch(i -> i == position) ? '#' : '.';
+            }).collect(Collector.of(
+                    StringBuilder::new,
+                    StringBuilder::append,
+                    StringBuilder::append,
+                    StringBuilder::toString)).split("(?<=\\G.{" + 40 + "})"));
+        };
     }
 
     private static ArrayList<Integer> cpu(String input) {
@@ -35,16 +45,38 @@ public class Day10 implements Day {
 
         var output = new ArrayList<Integer>();
 
-        for(var instruction : Arrays.stream(input.split("\\n")).toList()) {
-            if ("noop".equals(instruction)) {
+        for (var instruction = new Lines(input); instruction.next(); ) {
+            if (instruction.charAt(0) == 'n') { // noop
                 output.add(x);
-            } else {
+            } else { // addx <value>
                 output.add(x);
                 output.add(x);
-                x += Integer.parseInt(instruction.split(" ")[1]);
+                x += instruction.parseInt("addx ".length(), instruction.length());
             }
         }
         output.add(x);
         return output;
     }
+
+    // at least the 240 cycles the screen needs; X stays around the screen width
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var input = new StringBuilder();
+            var x = 1;
+            for (var instruction = 0; instruction < Math.max(size, 240); instruction++) {
+                if (random.nextInt(3) == 0) {
+                    input.append("noop\n");
+                } else {
+                    var value = 1 + random.nextInt(5);
+                    if (x + value > 40 || (x - value >= -1 && random.nextBoolean())) {
+                        value = -value;
+                    }
+                    x += value;
+                    input.append("addx ").append(value).append('\n');
+                }
+            }
+            return input.toString();
+        });
+    }
 }
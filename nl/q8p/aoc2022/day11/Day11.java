@@ -2,11 +2,18 @@ package nl.q8p.aoc2022.day11;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
+import nl.q8p.aoc2022.utils.Groups;
+import nl.q8p.aoc2022.utils.Lines;
+import nl.q8p.aoc2022.utils.Numbers;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.IntStream;
@@ -16,16 +23,33 @@ import static java.util.Comparator.reverseOrder;
 public class Day11 implements Day {
     record Monkey(LinkedList<Long> items, Function<Long, Long> inspect, Long test, int ifTrue, int ifFalse, AtomicLong inspectedCount)
     implements Iterator<Long> {
-        static Monkey parse(String string) {
-            var parts = string.split("\\n");
-            return new Monkey(
-                new LinkedList<>(Arrays.stream(parts[1].split(": ")[1].split(", ")).map(Long::parseLong).toList()),
-                monkeyFunction(parts[2].split(" = old ")[1]),
-                Long.parseLong(parts[3].split(" by ")[1]),
-                Integer.parseInt(parts[4].split(" monkey ")[1]),
-                Integer.parseInt(parts[5].split(" monkey ")[1]),
-                new AtomicLong()
-            );
+        static Monkey parse(Lines lines, long[] numbers) {
+            lines.next(); // Monkey <id>:
+
+            lines.next(); // Starting items: <item>, <item>, ...
+            var itemNumbers = lines.length() / 2 + 1 > numbers.length ? new long[lines.length() / 2 + 1] : numbers;
+            var itemCount = Numbers.longs(lines, itemNumbers);
+            var items = new LinkedList<Long>();
+            for (var i = 0; i < itemCount; i++) {
+                items.add(itemNumbers[i]);
+            }
+
+            lines.next(); // Operation: new = old <operator> <operand>
+            var inspect = monkeyFunction(lines.subSequence(lines.indexOf('=') + "= old ".length(), lines.length()).toString());
+
+            lines.next(); // Test: divisible by <test>
+            Numbers.longs(lines, numbers);
+            var test = numbers[0];
+
+            lines.next(); // If true: throw to monkey <id>
+            Numbers.longs(lines, numbers);
+            var ifTrue = (int) numbers[0];
+
+            lines.next(); // If false: throw to monkey <id>
+            Numbers.longs(lines, numbers);
+            var ifFalse = (int) numbers[0];
+
+            return new Monkey(items, inspect, test, ifTrue, ifFalse, new AtomicLong());
         }
 
         @Override
@@ -60,7 +84,11 @@ public class Day11 implements Day {
     }
 
     private static long playGame(String input, int numberOfRounds, long boredDivisor) {
-        var monkeys = Arrays.stream(input.split("\\n\\n")).map(Monkey::parse).toList();
+        var monkeys = new ArrayList<Monkey>();
+        var numbers = new long[16];
+        for (var groups = new Groups(input); groups.next(); ) {
+            monkeys.add(Monkey.parse(groups.lines(), numbers));
+        }
 
         IntStream.range(0, numberOfRounds).forEach(i -> round(monkeys, boredDivisor));
 
@@ -93,4 +121,45 @@ public class Day11 implements Day {
             default -> throw new UnsupportedOperationException(parts[0]);
         };
     }
+
+    // eight monkeys holding size items; the tests are distinct primes with a product small enough that old * old cannot overflow,
+    // and no monkey throws to itself
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var tests = new ArrayList<>(List.of(2, 3, 5, 7, 11, 13, 17, 19));
+            Collections.shuffle(tests, random);
+
+            final var items = new ArrayList<List<Integer>>();
+            for (var monkey = 0; monkey < tests.size(); monkey++) {
+                items.add(new ArrayList<>());
+            }
+            for (var item = 0; item < Math.max(size, tests.size()); item++) {
+                items.get(item < tests.size() ? item : random.nextInt(tests.size())).add(50 + random.nextInt(50));
+            }
+
+            final var input = new StringBuilder();
+            for (var monkey = 0; monkey < tests.size(); monkey++) {
+                final var ifTrue = other(monkey, tests.size(), random);
+                final var ifFalse = other(monkey, tests.size(), random);
+                final var operation = switch (random.nextInt(3)) {
+                    case 0 -> "* old";
+                    case 1 -> "* " + (2 + random.nextInt(18));
+                    default -> "+ " + (1 + random.nextInt(8));
+                };
+
+                input.append("Monkey ").append(monkey).append(":\n")
+                    .append("  Starting items: ").append(String.join(", ", items.get(monkey).stream().map(String::valueOf).toList())).append('\n')
+                    .append("  Operation: new = old ").append(operation).append('\n')
+                    .append("  Test: divisible by ").append(tests.get(monkey)).append('\n')
+                    .append("    If true: throw to monkey ").append(ifTrue).append('\n')
+                    .append("    If false: throw to monkey ").append(ifFalse).append("\n\n");
+            }
+            return input.toString();
+        });
+    }
+
+    private static int other(int monkey, int count, Random random) {
+        return (monkey + 1 + random.nextInt(count - 1)) % count;
+    }
 }
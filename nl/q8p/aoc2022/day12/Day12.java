@@ -2,6 +2,7 @@ package nl.q8p.aoc2022.day12;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -143,5 +144,38 @@ public class Day12 implements Day {
         };
     }
 
-
+    // a size by size map (at least 14, so there is room to climb 25 levels) with S top left and E bottom right; a random path of
+    // right and down steps between them climbs at most one level per step and reaches z next to E, so both assignments find a route
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var side = Math.max(14, size);
+            final var map = new char[side][side];
+            for (var row : map) {
+                for (var x = 0; x < side; x++) {
+                    row[x] = (char) ('a' + random.nextInt(26));
+                }
+            }
+
+            final var steps = 2 * (side - 1);
+            var x = 0;
+            var y = 0;
+            for (var step = 0; step < steps; step++) {
+                map[y][x] = (char) ('a' + step * 25 / (steps - 1));
+                if (y == side - 1 || (x < side - 1 && random.nextBoolean())) {
+                    x++;
+                } else {
+                    y++;
+                }
+            }
+            map[0][0] = 'S';
+            map[side - 1][side - 1] = 'E';
+
+            final var input = new StringBuilder();
+            for (var row : map) {
+                input.append(row).append('\n');
+            }
+            return input.toString();
+        });
+    }
 }
@@ -2,11 +2,14 @@ package nl.q8p.aoc2022.day13;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Random;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -150,4 +153,48 @@ public class Day13 implements Day {
             .map(PacketPair::parse)
             .toList();
     }
+
+    // pairs of random packets; a third of the right packets extend the left one and a third differ from it in one top level element,
+    // so comparisons have to look past a shared prefix
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var input = new StringBuilder();
+            for (var pair = 0; pair < size; pair++) {
+                final var left = packet(random, 0);
+                final var right = switch (random.nextInt(3)) {
+                    case 0 -> packet(random, 0);
+                    case 1 -> {
+                        final var longer = new ArrayList<>(left);
+                        longer.add(random.nextInt(11));
+                        yield longer;
+                    }
+                    default -> {
+                        final var changed = new ArrayList<>(left);
+                        if (changed.isEmpty()) {
+                            changed.add(random.nextInt(11));
+                        } else {
+                            changed.set(random.nextInt(changed.size()), random.nextInt(11));
+                        }
+                        yield changed;
+                    }
+                };
+
+                input.append(pair == 0 ? "" : "\n").append(packet(left)).append('\n').append(packet(right)).append('\n');
+            }
+            return input.toString();
+        });
+    }
+
+    private static List<Object> packet(Random random, int depth) {
+        final var packet = new ArrayList<Object>();
+        for (var i = random.nextInt(6); i > 0; i--) {
+            packet.add(depth < 4 && random.nextInt(3) == 0 ? packet(random, depth + 1) : random.nextInt(11));
+        }
+        return packet;
+    }
+
+    private static String packet(List<Object> packet) {
+        return packet.toString().replace(" ", "");
+    }
 }
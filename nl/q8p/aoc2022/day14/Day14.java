@@ -2,9 +2,11 @@ package nl.q8p.aoc2022.day14;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.IntStream;
 
 public class Day14 implements Day {
@@ -182,4 +184,28 @@ public class Day14 implements Day {
             return sandAdded;
         };
     }
+
+    // size rock paths; the depth is capped, so sand resting on the floor still fits the cave width
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var depth = Math.min(400, 10 + size);
+            final var input = new StringBuilder();
+            for (var path = 0; path < size; path++) {
+                var x = 500 - depth / 2 + random.nextInt(depth);
+                var y = 2 + random.nextInt(depth - 1);
+                input.append(x).append(',').append(y);
+                for (var segment = 1 + random.nextInt(4); segment > 0; segment--) {
+                    if (segment % 2 == 0) {
+                        x = Math.max(500 - depth / 2, Math.min(500 + depth / 2, x + random.nextInt(21) - 10));
+                    } else {
+                        y = Math.max(2, Math.min(depth, y + random.nextInt(21) - 10));
+                    }
+                    input.append(" -> ").append(x).append(',').append(y);
+                }
+                input.append('\n');
+            }
+            return input.toString();
+        });
+    }
 }
@@ -1,18 +1,22 @@
 package nl.q8p.aoc2022.day15;
 
 import nl.q8p.aoc2022.Assignment;
-import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.AssignmentContext;
+import nl.q8p.aoc2022.Generator;
+import nl.q8p.aoc2022.SharedModelDay;
+import nl.q8p.aoc2022.utils.Lines;
+import nl.q8p.aoc2022.utils.Numbers;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-public class Day15 implements Day {
+public class Day15 implements SharedModelDay<Day15.World> {
 
     static class Point {
         int x;
@@ -28,13 +32,6 @@ public class Day15 implements Day {
             return Math.abs(x - other.x) + Math.abs(y - other.y);
         }
 
-        static Point parse(String string) {
-            return new Point(
-                Integer.parseInt(string.substring(string.indexOf("x=") + "x=".length(), string .indexOf(','))),
-                Integer.parseInt(string.substring(string.indexOf("y=") + "y=".length()))
-            );
-        }
-
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -73,11 +70,11 @@ public class Day15 implements Day {
             return distanceToBeacon >= position.distanceTo(point);
         }
 
-        static Sensor parse(String string) {
-            return new Sensor(
-                Point.parse(string.substring(string.indexOf("Sensor at ") + "Sensor at ".length(), string.indexOf(':'))),
-                Point.parse(string.substring(string.indexOf("closest beacon is at ") + "closest beacon is at ".length()))
-            );
+        static Sensor parse(CharSequence line, int[] coordinates) {
+            // Sensor at x=<x>, y=<y>: closest beacon is at x=<x>, y=<y>
+            Numbers.ints(line, coordinates);
+
+            return new Sensor(new Point(coordinates[0], coordinates[1]), new Point(coordinates[2], coordinates[3]));
         }
 
         public int lastCoveredXAt(int y) {
@@ -104,7 +101,14 @@ public class Day15 implements Day {
         }
 
         static World parse(String string) {
-            return new World(Arrays.stream(string.split("\n")).map(Sensor::parse).toList());
+            var sensors = new ArrayList<Sensor>();
+            var coordinates = new int[4];
+
+            for (var line = new Lines(string); line.next(); ) {
+                sensors.add(Sensor.parse(line, coordinates));
+            }
+
+            return new World(sensors);
         }
 
         static boolean hasCoverage(Point point, Map<Point, Thing> things, Collection<Sensor> sensors) {
@@ -219,16 +223,21 @@ public class Day15 implements Day {
     }
 
     @Override
-    public Assignment first() {
-        return (run, input) -> World.parse(input).coveredLinesAtRow(switch (run) { case EXAMPLE -> 10; case REAL -> 2000000; });
+    public World parse(Assignment.Run run, String input) {
+        return World.parse(input);
+    }
+
+    @Override
+    public Object first(Assignment.Run run, World world, AssignmentContext context) {
+        return world.coveredLinesAtRow(switch (run) { case EXAMPLE -> 10; case REAL -> 2000000; });
     }
 
     @Override
-    public Assignment second() {
-        return (run, input) -> World.parse(input).uncoveredPointsBetween(new Point(0, 0), new Point(untilCoordinateOfSecondAssignment(run), untilCoordinateOfSecondAssignment(run)))
-                    .stream().mapToLong(p -> (4000000L * p.x) + p.y)
-                    .findFirst()
-                    .orElse(-1);
+    public Object second(Assignment.Run run, World world, AssignmentContext context) {
+        return world.uncoveredPointsBetween(new Point(0, 0), new Point(untilCoordinateOfSecondAssignment(run), untilCoordinateOfSecondAssignment(run)))
+                .stream().mapToLong(p -> (4000000L * p.x) + p.y)
+                .findFirst()
+                .orElse(-1);
     }
 
     private int untilCoordinateOfSecondAssignment(Assignment.Run run) {
@@ -237,4 +246,35 @@ public class Day15 implements Day {
             case REAL -> 4000000;
         };
     }
+
+    // size sensors (at least four) around a hidden point in the search area of the second assignment. No sensor reaches the hidden point,
+    // and the first four, just outside the corners of the area, reach every other point of it, so the hidden point is the only one left
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var limit = untilCoordinateOfSecondAssignment(Assignment.Run.REAL);
+            final var hidden = new Point(1 + random.nextInt(limit - 1), 1 + random.nextInt(limit - 1));
+
+            final var sensors = new ArrayList<>(List.of(new Point(-1, -1), new Point(limit + 1, -1), new Point(-1, limit + 1), new Point(limit + 1, limit + 1)));
+            while (sensors.size() < Math.max(4, size)) {
+                final var sensor = new Point(random.nextInt(limit + 1), random.nextInt(limit + 1));
+                if (!sensor.equals(hidden)) {
+                    sensors.add(sensor);
+                }
+            }
+
+            final var input = new StringBuilder();
+            for (var index = 0; index < sensors.size(); index++) {
+                final var sensor = sensors.get(index);
+                final var reach = sensor.distanceTo(hidden) - 1;
+                final var distance = index < 4 ? reach : reach - random.nextInt(reach / 4 + 1);
+                final var dx = random.nextInt(distance + 1);
+                final var beacon = new Point(sensor.x + (random.nextBoolean() ? dx : -dx), sensor.y + (random.nextBoolean() ? distance - dx : dx - distance));
+
+                input.append("Sensor at x=").append(sensor.x).append(", y=").append(sensor.y)
+                    .append(": closest beacon is at x=").append(beacon.x).append(", y=").append(beacon.y).append('\n');
+            }
+            return input.toString();
+        });
+    }
 }
@@ -1,7 +1,10 @@
 package nl.q8p.aoc2022.day16;
 
 import nl.q8p.aoc2022.Assignment;
-import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.AssignmentContext;
+import nl.q8p.aoc2022.Generator;
+import nl.q8p.aoc2022.SharedModelDay;
+import nl.q8p.aoc2022.utils.Numbers;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -12,11 +15,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class Day16 implements Day {
+public class Day16 implements SharedModelDay<Day16.Volcano> {
     static final class Route2 {
         private final Route me;
 
@@ -144,6 +148,16 @@ public class Day16 implements Day {
             this.maxSteps = maxSteps;
         }
 
+        private Volcano(Map<String, Valve> valvesByName, Map<String, List<Link>> links, int maxSteps) {
+            this.valvesByName = valvesByName;
+            this.links = links;
+            this.maxSteps = maxSteps;
+        }
+
+        Volcano withMaxSteps(int maxSteps) {
+            return new Volcano(valvesByName, links, maxSteps);
+        }
+
         Route route() {
             var candidates = valvesByName.values().stream().filter(Valve::functional).toList();
 
@@ -174,7 +188,7 @@ public class Day16 implements Day {
             return newRoutes.isEmpty() ? from : newRoutes.stream().max(Comparator.comparingLong(Route::pressure)).orElseThrow();
         }
 
-        Route2 route2() {
+        Route2 route2(AssignmentContext context) {
             var candidates = valvesByName.values().stream().filter(Valve::functional).toList();
 
             return route2(
@@ -182,10 +196,13 @@ public class Day16 implements Day {
                             new Route(valvesByName.get("AA"), Collections.emptyList(), maxSteps),
                             new Route(valvesByName.get("AA"), Collections.emptyList(), maxSteps)
                     ),
-                    candidates.stream().filter(c -> !c.name.equals("AA")).toList());
+                    candidates.stream().filter(c -> !c.name.equals("AA")).toList(),
+                    context);
         }
 
-        private Route2 route2(Route2 from, List<Valve> candidates) {
+        private Route2 route2(Route2 from, List<Valve> candidates, AssignmentContext context) {
+            context.checkCancelled();
+
             if (from.me.steps() == maxSteps && from.elephant.steps() == maxSteps) {
                 return from;
             }
@@ -206,7 +223,7 @@ public class Day16 implements Day {
                         var newLink = from.withLinks(link, null);
 
                         if (newLink.me.steps() < maxSteps) {
-                            newRoutes.add(route2(newLink, candidates.stream().filter(c -> !c.name().equals(candidateValve.name())).toList()));
+                            newRoutes.add(route2(newLink, candidates.stream().filter(c -> !c.name().equals(candidateValve.name())).toList(), context));
                         }
                     }
                 });
@@ -224,7 +241,7 @@ public class Day16 implements Day {
                         var newLink = from.withLinks(null, link);
 
                         if (newLink.elephant.steps() < maxSteps) {
-                            newRoutes.add(route2(newLink, candidates.stream().filter(c -> !c.name().equals(candidateValve.name())).toList()));
+                            newRoutes.add(route2(newLink, candidates.stream().filter(c -> !c.name().equals(candidateValve.name())).toList(), context));
                         }
                     }
                 });
@@ -272,8 +289,9 @@ public class Day16 implements Day {
             return valvesByName.values().stream().sorted(Comparator.comparing(v -> v.name)).map(Valve::toString).collect(Collectors.joining("\n"));
         }
 
-        static Volcano parse(String string, int maxSteps) {
-            var result = new HashMap<>(Arrays.stream(string.split("\n")).map(Valve::parse).collect(Collectors.toMap(v -> v.name, v -> v)));
+        static Volcano parse(String string) {
+            var rate = new long[1];
+            var result = new HashMap<>(Arrays.stream(string.split("\n")).map(line -> Valve.parse(line, rate)).collect(Collectors.toMap(v -> v.name, v -> v)));
 
             var relations = Arrays.stream(string.split("\n")).collect(Collectors.toMap(
                     line -> line.substring("Valve ".length(), line.indexOf(" has ")),
@@ -291,7 +309,7 @@ public class Day16 implements Day {
 
             relations.forEach((valve, tunnels) -> Arrays.stream(tunnels).forEach(tunnel -> result.get(valve).connect(result.get(tunnel))));
 
-            return new Volcano(result.values().stream().toList(), maxSteps);
+            return new Volcano(result.values().stream().toList(), 0);
         }
     }
 
@@ -311,11 +329,13 @@ public class Day16 implements Day {
                 tunnel.tunnels.add(this);
             }
 
-            static Valve parse(String string) {
+            static Valve parse(String string, long[] rate) {
+                Numbers.longs(string, string.indexOf('='), string.indexOf(';'), rate);
+
                 return new Valve(
                         string.substring("Valve ".length(), string.indexOf(" has ")),
                         new HashSet<>(),
-                        Long.parseLong(string.substring(string.indexOf("rate=") + "rate=".length(), string.indexOf(';'))));
+                        rate[0]);
             }
 
             @Override
@@ -346,12 +366,57 @@ public class Day16 implements Day {
     }
 
     @Override
-    public Assignment first() {
-        return (run, input) -> Volcano.parse(input, 30).route().pressure();
+    public Volcano parse(Assignment.Run run, String input) {
+        return Volcano.parse(input);
+    }
+
+    @Override
+    public Object first(Assignment.Run run, Volcano volcano, AssignmentContext context) {
+        return volcano.withMaxSteps(30).route().pressure();
     }
 
     @Override
-    public Assignment second() {
-        return (run, input) -> Volcano.parse(input, 26).route2().pressure();
+    public Object second(Assignment.Run run, Volcano volcano, AssignmentContext context) {
+        return volcano.withMaxSteps(26).route2(context).pressure();
+    }
+
+    // size valves (AA, AB, ...), connected by a random tree plus a few extra tunnels; AB and about a third of the other valves, but not AA,
+    // have a flow rate. The search of both assignments grows exponentially with the number of valves with a flow rate, so keep sizes small.
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var count = Math.max(2, Math.min(26 * 26, size));
+            final var tunnels = new ArrayList<Set<Integer>>();
+            for (var valve = 0; valve < count; valve++) {
+                tunnels.add(new HashSet<>());
+                if (valve > 0) {
+                    final var other = random.nextInt(valve);
+                    tunnels.get(valve).add(other);
+                    tunnels.get(other).add(valve);
+                }
+            }
+            for (var extra = count / 4; extra > 0; extra--) {
+                final var from = random.nextInt(count);
+                final var to = random.nextInt(count);
+                if (from != to) {
+                    tunnels.get(from).add(to);
+                    tunnels.get(to).add(from);
+                }
+            }
+
+            final var input = new StringBuilder();
+            for (var valve = 0; valve < count; valve++) {
+                final var rate = valve == 1 || (valve > 1 && random.nextInt(3) == 0) ? 1 + random.nextInt(25) : 0;
+                final var names = tunnels.get(valve).stream().sorted().map(Day16::valveName).toList();
+
+                input.append("Valve ").append(valveName(valve)).append(" has flow rate=").append(rate)
+                    .append(names.size() == 1 ? "; tunnel leads to valve " : "; tunnels lead to valves ").append(String.join(", ", names)).append('\n');
+            }
+            return input.toString();
+        });
+    }
+
+    private static String valveName(int index) {
+        return "" + (char) ('A' + index / 26) + (char) ('A' + index % 26);
     }
 }
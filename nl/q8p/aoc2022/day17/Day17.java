@@ -1,7 +1,9 @@
 package nl.q8p.aoc2022.day17;
 
-import nl.q8p.aoc2022.Assignment;
+import nl.q8p.aoc2022.AssignmentContext;
+import nl.q8p.aoc2022.ContextualAssignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -10,6 +12,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Logger;
 import java.util.stream.IntStream;
@@ -429,7 +432,7 @@ public class Day17 implements Day {
             return removedToOptimize + bufferSize;
         }
 
-        public long heightAfter(long blockCount) {
+        public long heightAfter(long blockCount, AssignmentContext context) {
             var blockCounter = 0L;
 
             while(blockCounter != blockCount) {
@@ -437,8 +440,9 @@ public class Day17 implements Day {
                 tick();
                 blockCounter++;
 
-                if (blockCounter % 100_000_000 == 0) {
-                    LOG.info("" + blockCounter + " / " + blockCount + " (" + ((double)blockCounter / blockCount * 100L) + "%)");
+                if ((blockCounter & 0xFFFFF) == 0) {
+                    context.progress(blockCounter, blockCount);
+                    context.checkCancelled();
                 }
             }
 
@@ -447,12 +451,23 @@ public class Day17 implements Day {
     }
 
     @Override
-    public Assignment first() {
-        return (run, input) -> new Cave(Wind.parse(input)).heightAfter(2022);
+    public ContextualAssignment first() {
+        return (run, input, context) -> new Cave(Wind.parse(input)).heightAfter(2022, context);
     }
 
     @Override
-    public Assignment second() {
-        return (run, input) -> new Cave(Wind.parse(input)).heightAfter(1_000_000_000_000L);
+    public ContextualAssignment second() {
+        return (run, input, context) -> new Cave(Wind.parse(input)).heightAfter(1_000_000_000_000L, context);
+    }
+
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var input = new StringBuilder();
+            for (var jet = 0; jet < size; jet++) {
+                input.append(random.nextBoolean() ? '>' : '<');
+            }
+            return input.toString();
+        });
     }
 }
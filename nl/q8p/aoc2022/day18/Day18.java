@@ -2,12 +2,15 @@ package nl.q8p.aoc2022.day18;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -152,4 +155,17 @@ public class Day18 implements Day {
 
         return world;
     }
+
+    // size distinct cubes in a box about twice their volume, so they form pockets of air
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var side = Math.max(2, (int) Math.ceil(Math.cbrt(2.0 * size)));
+            final var cubes = new LinkedHashSet<String>();
+            while (cubes.size() < size) {
+                cubes.add(random.nextInt(side) + "," + random.nextInt(side) + "," + random.nextInt(side));
+            }
+            return String.join("\n", cubes) + "\n";
+        });
+    }
 }
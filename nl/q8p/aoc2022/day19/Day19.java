@@ -1,13 +1,18 @@
 package nl.q8p.aoc2022.day19;
 
 import nl.q8p.aoc2022.Assignment;
+import nl.q8p.aoc2022.AssignmentContext;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
+import nl.q8p.aoc2022.PhasedAssignment;
+import nl.q8p.aoc2022.utils.Lines;
+import nl.q8p.aoc2022.utils.Numbers;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -19,20 +24,10 @@ public class Day19 implements Day {
 
     private static final Logger LOG = Logger.getLogger(Day19.class.getName());
 
-    static Long parseResource(String string, String resourceName) {
-        var stringThatEndsWithValue = string.substring(0, string.lastIndexOf(" " + resourceName));
-
-        return Long.parseLong(stringThatEndsWithValue.substring(stringThatEndsWithValue.lastIndexOf(' ') + 1));
-    }
-
     record OreRobot(long ore) {
         boolean canCreateWith(Resources resources) {
             return ore <= resources.ore;
         }
-
-        public static OreRobot parse(String string) {
-            return new OreRobot(parseResource(string, "ore"));
-        }
     }
 
     record ClayRobot(long ore) {
@@ -40,21 +35,12 @@ public class Day19 implements Day {
         boolean canCreateWith(Resources resources) {
             return ore <= resources.ore;
         }
-
-        public static ClayRobot parse(String string) {
-            return new ClayRobot(parseResource(string, "ore"));
-        }
-
     }
 
     record ObsidianRobot(long ore, long clay) {
         boolean canCreateWith(Resources resources) {
             return ore <= resources.ore && clay <= resources.clay;
         }
-
-        public static ObsidianRobot parse(String string) {
-            return new ObsidianRobot(parseResource(string, "ore"), parseResource(string, "clay"));
-        }
     }
 
     record GeodeRobot(long ore, long obsidian) {
@@ -65,21 +51,20 @@ public class Day19 implements Day {
         boolean canCreateWith(Resources resources) {
             return ore <= resources.ore && obsidian <= resources.obsidian;
         }
-
-        public static GeodeRobot parse(String string) {
-            return new GeodeRobot(parseResource(string, "ore"), parseResource(string, "obsidian"));
-        }
     }
 
     record Blueprint(Long id, OreRobot oreRobot, ClayRobot clayRobot, ObsidianRobot obsidianRobot, GeodeRobot geodeRobot) {
-        static Blueprint parse(String string) {
-            var robotString = string.split("\\. ");
+        static Blueprint parse(CharSequence string, long[] numbers) {
+            // Blueprint <id>: Each ore robot costs <ore> ore. Each clay robot costs <ore> ore.
+            // Each obsidian robot costs <ore> ore and <clay> clay. Each geode robot costs <ore> ore and <obsidian> obsidian.
+            Numbers.longs(string, numbers);
+
             return new Blueprint(
-                Long.parseLong(string.substring(string.indexOf(' ') + 1, string.indexOf(":"))),
-                OreRobot.parse(robotString[0]),
-                ClayRobot.parse(robotString[1]),
-                ObsidianRobot.parse(robotString[2]),
-                GeodeRobot.parse(robotString[3])
+                numbers[0],
+                new OreRobot(numbers[1]),
+                new ClayRobot(numbers[2]),
+                new ObsidianRobot(numbers[3], numbers[4]),
+                new GeodeRobot(numbers[5], numbers[6])
             );
         }
 
@@ -254,12 +239,14 @@ public class Day19 implements Day {
         }
     }
 
-    public long findMax(World start) {
+    public long findMax(World start, AssignmentContext context) {
 
         Set<World> worlds = new HashSet<>(List.of(start));
         var maxWorldComparing = 100000;
 
         for (int minute = 0; minute < start.clock.timeLeft; minute++) {
+            context.checkCancelled();
+
 //            LOG.info("minute: " + minute + ", world count: " + worlds.size());
 //            worlds.stream()
 //                    .sorted(Comparator.comparing(world -> -world.score()))
@@ -339,16 +326,15 @@ public class Day19 implements Day {
 
     @Override
     public Assignment first() {
-        return (run, input) -> {
-            var blueprints = Arrays.stream(input.split("\\n")).map(Blueprint::parse).toList();
-
+        return PhasedAssignment.of((run, input) -> parse(input), (run, blueprints, context) -> {
             var total = 0;
             for(var blueprint : blueprints) {
+                context.progress(blueprints.indexOf(blueprint), blueprints.size());
                 LOG.info(blueprint::toString);
 
                 var world = new World(blueprint, new Clock(24), new Resources(0L, 0L, 0L, 0L), new Robots(1L, 0L, 0L, 0L));
 
-                long geodes = findMax(world);
+                long geodes = findMax(world, context);
 
                 long qualityLevel = geodes * world.blueprint.id;
 
@@ -358,23 +344,22 @@ public class Day19 implements Day {
             }
 
             return total;
-        };
+        });
     }
 
     @Override
     public Assignment second() {
-        return (run, input) -> {
-            var all = Arrays.stream(input.split("\\n")).map(Blueprint::parse).toList();
-
+        return PhasedAssignment.of((run, input) -> parse(input), (run, all, context) -> {
             var blueprints = all.subList(0, Math.min(all.size(), 3));
 
             long total = 0;
             for(var blueprint : blueprints) {
+                context.progress(blueprints.indexOf(blueprint), blueprints.size());
                 LOG.info(blueprint::toString);
 
                 var world = new World(blueprint, new Clock(32), new Resources(0L, 0L, 0L, 0L), new Robots(1L, 0L, 0L, 0L));
 
-                long geodes = findMax(world);
+                long geodes = findMax(world, context);
 
                 LOG.info(() -> "blueprint: " + blueprint.id + ": " + geodes + " geodes");
 
@@ -386,6 +371,33 @@ public class Day19 implements Day {
             }
 
             return total;
-        };
+        });
+    }
+
+    private static List<Blueprint> parse(String input) {
+        var blueprints = new ArrayList<Blueprint>();
+        var numbers = new long[7];
+
+        for (var line = new Lines(input); line.next(); ) {
+            blueprints.add(Blueprint.parse(line, numbers));
+        }
+
+        return blueprints;
+    }
+
+    // size blueprints with costs in the ranges of the puzzle inputs
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var input = new StringBuilder();
+            for (var blueprint = 1; blueprint <= size; blueprint++) {
+                input.append("Blueprint ").append(blueprint).append(": ")
+                    .append("Each ore robot costs ").append(2 + random.nextInt(3)).append(" ore. ")
+                    .append("Each clay robot costs ").append(2 + random.nextInt(3)).append(" ore. ")
+                    .append("Each obsidian robot costs ").append(2 + random.nextInt(3)).append(" ore and ").append(5 + random.nextInt(16)).append(" clay. ")
+                    .append("Each geode robot costs ").append(2 + random.nextInt(3)).append(" ore and ").append(5 + random.nextInt(16)).append(" obsidian.\n");
+            }
+            return input.toString();
+        });
     }
 }
@@ -1,10 +1,13 @@
 package nl.q8p.aoc2022.day20;
 
-import nl.q8p.aoc2022.Assignment;
+import nl.q8p.aoc2022.AssignmentContext;
+import nl.q8p.aoc2022.ContextualAssignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 
@@ -17,7 +20,7 @@ public class Day20 implements Day {
         }
     }
 
-    private long decode(String input, long decryptionKey, int rounds) {
+    private long decode(String input, long decryptionKey, int rounds, AssignmentContext context) {
         var original = Arrays.stream(input.split("\\n")).map(Integer::parseInt).map(i -> decryptionKey * i).toList();
         int size = original.size();
         int sizeWhenMoving = size - 1;
@@ -26,6 +29,11 @@ public class Day20 implements Day {
 
         IntStream.range(0, rounds).forEach( round ->
             IntStream.range(0, size).forEach( index -> {
+                if (index % 1024 == 0) {
+                    context.progress((long) round * size + index, (long) rounds * size);
+                    context.checkCancelled();
+                }
+
                 var number = numbers.stream().filter(n -> n.index == index).findFirst().orElseThrow();
 
                 var oldIndex = numbers.indexOf(number);
@@ -43,12 +51,32 @@ public class Day20 implements Day {
     }
 
     @Override
-    public Assignment first() {
-        return (run, input) -> decode(input, 1, 1);
+    public ContextualAssignment first() {
+        return (run, input, context) -> decode(input, 1, 1, context);
     }
 
     @Override
-    public Assignment second() {
-        return (run, input) -> decode(input, 811589153L, 10);
+    public ContextualAssignment second() {
+        return (run, input, context) -> decode(input, 811589153L, 10, context);
+    }
+
+    // size numbers, exactly one of them 0; one more (or a few) when size divides 1000, because then the
+    // 1000th, 2000th and 3000th number after the 0 are all the 0 itself and both answers would be 0
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            var count = size;
+            while (1000 % count == 0) {
+                count++;
+            }
+
+            final var zero = random.nextInt(count);
+            final var input = new StringBuilder();
+            for (var i = 0; i < count; i++) {
+                final var number = i == zero ? 0 : (random.nextBoolean() ? 1 : -1) * (1 + random.nextInt(10000));
+                input.append(number).append('\n');
+            }
+            return input.toString();
+        });
     }
 }
@@ -2,11 +2,19 @@ package nl.q8p.aoc2022.day21;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static java.math.MathContext.DECIMAL128;
@@ -307,4 +315,89 @@ public class Day21 implements Day {
             }
         }).collect(Collectors.joining("\n"));
     }
+
+    // a random expression tree with size numbers (at least two), one of them humn, under root. Divisions are exact and never have humn in
+    // the divisor, multiplications have no zero factor and numbers are positive, so both assignments can evaluate and invert the tree.
+    // The side of root without humn gets one more number to equal the other side, so humn's own number is the answer of the second
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var count = Math.max(2, Math.min(100_000, size));
+            final var names = new HashSet<>(Set.of("root", "humn"));
+            final var lines = new ArrayList<String>();
+
+            final var left = random.nextInt(count - 1) + 1;
+            final var humn = random.nextInt(count);
+            final var leftTree = tree(0, left, humn, names, lines, random);
+            final var rightTree = tree(left, count, humn, names, lines, random);
+            final var withHumn = leftTree.withHumn ? leftTree : rightTree;
+            final var balanced = balance(leftTree.withHumn ? rightTree : leftTree, withHumn.value, names, lines, random);
+            lines.add("root: " + (leftTree.withHumn ? withHumn.name + " + " + balanced : balanced + " + " + withHumn.name));
+
+            Collections.shuffle(lines, random);
+            return String.join("\n", lines) + "\n";
+        });
+    }
+
+    private record Tree(String name, long value, boolean withHumn) { }
+
+    // the tree over the numbers from (inclusive) until (exclusive)
+    private static Tree tree(int from, int until, int humn, Set<String> names, List<String> lines, Random random) {
+        if (until - from == 1) {
+            final var name = from == humn ? "humn" : name(names, random);
+            final var value = 1 + random.nextInt(20);
+            lines.add(name + ": " + value);
+            return new Tree(name, value, from == humn);
+        }
+
+        final var split = from + 1 + random.nextInt(until - from - 1);
+        final var left = tree(from, split, humn, names, lines, random);
+        final var right = tree(split, until, humn, names, lines, random);
+
+        final var operators = new ArrayList<>(List.of('+', '-'));
+        if (left.value != 0 && right.value != 0 && Math.abs(left.value) < 1_000_000 && Math.abs(right.value) < 1_000_000) {
+            operators.add('*');
+        }
+        if (right.value != 0 && !right.withHumn && left.value % right.value == 0) {
+            operators.add('/');
+        }
+
+        final var operator = operators.get(random.nextInt(operators.size()));
+        final var value = switch (operator) {
+            case '+' -> left.value + right.value;
+            case '-' -> left.value - right.value;
+            case '*' -> left.value * right.value;
+            default -> left.value / right.value;
+        };
+
+        final var name = name(names, random);
+        lines.add(name + ": " + left.name + " " + operator + " " + right.name);
+        return new Tree(name, value, left.withHumn || right.withHumn);
+    }
+
+    // the name of a monkey yelling tree's value adjusted to target
+    private static String balance(Tree tree, long target, Set<String> names, List<String> lines, Random random) {
+        final var difference = target - tree.value;
+        if (difference == 0) {
+            return tree.name;
+        }
+
+        final var number = name(names, random);
+        lines.add(number + ": " + Math.abs(difference));
+        final var name = name(names, random);
+        lines.add(name + ": " + tree.name + (difference > 0 ? " + " : " - ") + number);
+        return name;
+    }
+
+    private static String name(Set<String> names, Random random) {
+        while (true) {
+            final var name = new StringBuilder();
+            for (var i = 0; i < 4; i++) {
+                name.append((char) ('a' + random.nextInt(26)));
+            }
+            if (names.add(name.toString())) {
+                return name.toString();
+            }
+        }
+    }
 }
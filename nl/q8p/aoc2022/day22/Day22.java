@@ -1,11 +1,14 @@
 package nl.q8p.aoc2022.day22;
 
 import nl.q8p.aoc2022.Assignment;
-import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.AssignmentContext;
+import nl.q8p.aoc2022.Generator;
+import nl.q8p.aoc2022.SharedModelDay;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.IntStream;
 
 import static nl.q8p.aoc2022.day22.Day22.SideType.BOTTOM;
@@ -18,7 +21,7 @@ import static nl.q8p.aoc2022.day22.Day22.TileType.EMPTY;
 import static nl.q8p.aoc2022.day22.Day22.TileType.OPEN;
 import static nl.q8p.aoc2022.day22.Day22.TileType.WALL;
 
-public class Day22 implements Day {
+public class Day22 implements SharedModelDay<Day22.Scenario> {
 
     record Cursor(Position position, Orientation orientation) {
         Cursor with(Position withPosition) {
@@ -376,13 +379,18 @@ public class Day22 implements Day {
     }
 
     @Override
-    public Assignment first() {
-        return (run, input) -> Scenario.parse(input).playWith(new FirstMoveLogic());
+    public Scenario parse(Assignment.Run run, String input) {
+        return Scenario.parse(input);
     }
 
     @Override
-    public Assignment second() {
-        return (run, input) -> Scenario.parse(input).playWith(new SecondMoveLogic(cubeLayout(run)));
+    public Object first(Assignment.Run run, Scenario scenario, AssignmentContext context) {
+        return scenario.playWith(new FirstMoveLogic());
+    }
+
+    @Override
+    public Object second(Assignment.Run run, Scenario scenario, AssignmentContext context) {
+        return scenario.playWith(new SecondMoveLogic(cubeLayout(run)));
     }
 
     enum Transform {
@@ -490,4 +498,35 @@ public class Day22 implements Day {
                 new Side[] { up, null, null }
         });
     }
+
+    // the cube net of the real input (see realLayout) with sides of size tiles, about one in ten a wall, and 20 * size moves;
+    // like the real input, the line of moves has no line end, which the parser of the moves would read as part of a number
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var side = Math.max(2, size);
+            final var net = new boolean[][] {
+                { false, true, true },
+                { false, true, false },
+                { true, true, false },
+                { true, false, false }
+            };
+
+            final var input = new StringBuilder();
+            for (var y = 0; y < 4 * side; y++) {
+                final var row = net[y / side];
+                final var until = row[2] ? 3 : row[1] ? 2 : 1;
+                for (var x = 0; x < until * side; x++) {
+                    input.append(!row[x / side] ? ' ' : (y == 0 && x == side) || random.nextInt(10) != 0 ? '.' : '#');
+                }
+                input.append('\n');
+            }
+
+            input.append('\n');
+            for (var move = 0; move < 20 * side; move++) {
+                input.append(move == 0 ? "" : random.nextBoolean() ? "L" : "R").append(1 + random.nextInt(2 * side));
+            }
+            return input.toString();
+        });
+    }
 }
@@ -1,7 +1,9 @@
 package nl.q8p.aoc2022.day23;
 
 import nl.q8p.aoc2022.Assignment;
-import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.AssignmentContext;
+import nl.q8p.aoc2022.Generator;
+import nl.q8p.aoc2022.SharedModelDay;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -15,7 +17,7 @@ import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-public class Day23 implements Day {
+public class Day23 implements SharedModelDay<Day23.World> {
     private static final Logger LOG = Logger.getLogger(Day23.class.getName());
 
     enum Direction {
@@ -129,6 +131,11 @@ public class Day23 implements Day {
             this.direction = direction;
         }
 
+        // ticking moves the elves, so the assignments work on a copy of the shared world
+        World copy() {
+            return new World(new HashSet<>(elves), direction);
+        }
+
         Area area() {
             var minX = elves.stream().mapToInt(elve -> elve.x).min().orElseThrow();
             var maxX = elves.stream().mapToInt(elve -> elve.x).max().orElseThrow();
@@ -188,10 +195,11 @@ public class Day23 implements Day {
             return new World(elves, Direction.UP);
         }
 
-        public int firstRoundWithoutMove() {
+        public int firstRoundWithoutMove(AssignmentContext context) {
             int round = 1;
 
             while(tick()) {
+                context.checkCancelled();
                 round++;
             }
 
@@ -266,12 +274,32 @@ public class Day23 implements Day {
     }
 
     @Override
-    public Assignment first() {
-        return (run, input) -> World.parse(input).tick(10).emptyTiles();
+    public World parse(Assignment.Run run, String input) {
+        return World.parse(input);
+    }
+
+    @Override
+    public Object first(Assignment.Run run, World world, AssignmentContext context) {
+        return world.copy().tick(10).emptyTiles();
     }
 
     @Override
-    public Assignment second() {
-        return (run, input) -> World.parse(input).firstRoundWithoutMove();
+    public Object second(Assignment.Run run, World world, AssignmentContext context) {
+        return world.copy().firstRoundWithoutMove(context);
+    }
+
+    // a field of size by size, half of it elves
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var input = new StringBuilder();
+            for (var y = 0; y < size; y++) {
+                for (var x = 0; x < size; x++) {
+                    input.append(random.nextBoolean() ? '#' : '.');
+                }
+                input.append('\n');
+            }
+            return input.toString();
+        });
     }
 }
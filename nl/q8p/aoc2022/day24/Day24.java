@@ -2,6 +2,7 @@ package nl.q8p.aoc2022.day24;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
 
 import java.util.Arrays;
 import java.util.Optional;
@@ -57,16 +58,27 @@ public class Day24 implements Day {
         }
 
         private int timeWalking(int runs) {
+            return timeWalking(runs, Integer.MAX_VALUE);
+        }
+
+        // the time of the walks, or -1 when a walk takes longer than maxTime
+        private int timeWalking(int runs, int maxTime) {
             var time = 0;
             boolean reversed = false;
 
             for (var run = 0; run < runs; run++) {
                 var reachedDestination = false;
+                var walkTime = 0;
                 do {
                     reachedDestination = tick(reversed);
 
                     time++;
-                } while (!reachedDestination);
+                    walkTime++;
+                } while (!reachedDestination && walkTime < maxTime);
+
+                if (!reachedDestination) {
+                    return -1;
+                }
 
                 if (run + 1 < runs) {
                     // remove me from positions
@@ -161,4 +173,33 @@ public class Day24 implements Day {
     public Assignment second() {
         return (run, input) -> Valley.parse(input).timeWalking(3);
     }
+
+    // a size wide valley (at least 2) of a quarter of that height with a blizzard on three in four positions, and no up or down blizzards in
+    // the entry and exit columns, like the real input. The assignments walk until they get through, so a valley that cannot be crossed there
+    // and back within a generous time is replaced by the next one.
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var width = Math.max(2, size);
+            final var height = Math.max(2, size / 4);
+            final var directions = Direction.values();
+
+            while (true) {
+                final var input = new StringBuilder("#.").append("#".repeat(width)).append('\n');
+                for (var y = 0; y < height; y++) {
+                    input.append('#');
+                    for (var x = 0; x < width; x++) {
+                        final var vertical = x != 0 && x != width - 1;
+                        input.append(random.nextInt(4) == 0 ? '.' : directions[vertical ? random.nextInt(4) : 2 + random.nextInt(2)].representation);
+                    }
+                    input.append("#\n");
+                }
+                input.append("#".repeat(width)).append(".#\n");
+
+                if (Valley.parse(input.toString()).timeWalking(3, 20 * (width + height)) != -1) {
+                    return input.toString();
+                }
+            }
+        });
+    }
 }
@@ -2,9 +2,11 @@ package nl.q8p.aoc2022.day25;
 
 import nl.q8p.aoc2022.Assignment;
 import nl.q8p.aoc2022.Day;
+import nl.q8p.aoc2022.Generator;
 
 import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.logging.Logger;
 
 public class Day25 implements Day {
@@ -58,7 +60,8 @@ public class Day25 implements Day {
     }
 
     static void fix5(StringBuilder value, int position) {
-        if (position + 2 == value.length() && value.charAt(value.length() - 2 - position) == '4') {
+        if (position + 1 == value.length()) {
+            // carry past the most significant digit
             value.insert(0, '1');
         } else {
             var symbolToFix = value.charAt(value.length() - 2 - position);
@@ -99,4 +102,15 @@ public class Day25 implements Day {
     public Assignment second() {
         return (run, input) -> "";
     }
+
+    @Override
+    public Optional<Generator> generator() {
+        return Optional.of((size, random) -> {
+            final var input = new StringBuilder();
+            for (var number = 0; number < size; number++) {
+                input.append(format(new BigInteger(1 + random.nextInt(48), random).add(BigInteger.ONE))).append('\n');
+            }
+            return input.toString();
+        });
+    }
 }
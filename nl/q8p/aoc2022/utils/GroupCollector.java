@@ -1,15 +1,25 @@
 package nl.q8p.aoc2022.utils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
-public class GroupCollector<T> implements Collector<T, List<List<T>>, List<List<T>>> {
+/**
+ * Collects consecutive elements into groups of {@code size}; the last group holds the remainder. Works on ordered parallel
+ * streams: a chunk keeps its elements flat, so merging a chunk that ends in a partial group with the next chunk completes
+ * that group. The groups are only cut by the finisher, as views on the collected elements.
+ */
+public class GroupCollector<T> implements Collector<T, List<T>, List<List<T>>> {
     final int size;
 
     private GroupCollector(int size) {
@@ -20,36 +30,135 @@ public class GroupCollector<T> implements Collector<T, List<List<T>>, List<List<
         return new GroupCollector<>(size);
     }
 
+    /**
+     * Groups the ints of a (possibly parallel) stream without boxing them.
+     */
+    public static IntGroups ints(IntStream stream, int size) {
+        return stream.collect(() -> new IntGroups(size), IntGroups::add, IntGroups::addAll);
+    }
+
+    /**
+     * Groups the longs of a (possibly parallel) stream without boxing them.
+     */
+    public static LongGroups longs(LongStream stream, int size) {
+        return stream.collect(() -> new LongGroups(size), LongGroups::add, LongGroups::addAll);
+    }
+
     @Override
-    public Supplier<List<List<T>>> supplier() {
+    public Supplier<List<T>> supplier() {
         return ArrayList::new;
     }
 
     @Override
-    public BiConsumer<List<List<T>>, T> accumulator() {
-        return (result, element) -> {
-            if (result.isEmpty() || result.get(result.size() - 1).size() == size) {
-                result.add(new ArrayList<>());
-            }
-
-            result.get(result.size() - 1).add(element);
-        };
+    public BiConsumer<List<T>, T> accumulator() {
+        return List::add;
     }
 
     @Override
-    public BinaryOperator<List<List<T>>> combiner() {
-        return (input, output) -> {
-            throw new UnsupportedOperationException("parallel is not supported");
+    public BinaryOperator<List<T>> combiner() {
+        return (left, right) -> {
+            left.addAll(right);
+            return left;
         };
     }
 
     @Override
-    public Function<List<List<T>>, List<List<T>>> finisher() {
-        return input -> input;
+    public Function<List<T>, List<List<T>>> finisher() {
+        return elements -> {
+            final var groups = new ArrayList<List<T>>((elements.size() + size - 1) / size);
+
+            for (var from = 0; from < elements.size(); from += size) {
+                groups.add(Collections.unmodifiableList(elements.subList(from, Math.min(from + size, elements.size()))));
+            }
+
+            return groups;
+        };
     }
 
     @Override
     public Set<Characteristics> characteristics() {
-        return Set.of(Characteristics.IDENTITY_FINISH);
+        return Set.of();
+    }
+
+    /**
+     * Ints in groups of a fixed size, stored in one flat array; the last group holds the remainder.
+     */
+    public static final class IntGroups {
+        private final int size;
+
+        private int[] values = new int[16];
+        private int length;
+
+        private IntGroups(int size) {
+            this.size = size;
+        }
+
+        private void add(int value) {
+            if (length == values.length) {
+                values = Arrays.copyOf(values, length * 2);
+            }
+            values[length++] = value;
+        }
+
+        private void addAll(IntGroups other) {
+            if (length + other.length > values.length) {
+                values = Arrays.copyOf(values, Math.max(length + other.length, length * 2));
+            }
+            System.arraycopy(other.values, 0, values, length, other.length);
+            length += other.length;
+        }
+
+        public int count() {
+            return (length + size - 1) / size;
+        }
+
+        public int size(int group) {
+            return Math.min(size, length - Objects.checkIndex(group, count()) * size);
+        }
+
+        public int get(int group, int index) {
+            return values[group * size + Objects.checkIndex(index, size(group))];
+        }
+    }
+
+    /**
+     * Longs in groups of a fixed size, stored in one flat array; the last group holds the remainder.
+     */
+    public static final class LongGroups {
+        private final int size;
+
+        private long[] values = new long[16];
+        private int length;
+
+        private LongGroups(int size) {
+            this.size = size;
+        }
+
+        private void add(long value) {
+            if (length == values.length) {
+                values = Arrays.copyOf(values, length * 2);
+            }
+            values[length++] = value;
+        }
+
+        private void addAll(LongGroups other) {
+            if (length + other.length > values.length) {
+                values = Arrays.copyOf(values, Math.max(length + other.length, length * 2));
+            }
+            System.arraycopy(other.values, 0, values, length, other.length);
+            length += other.length;
+        }
+
+        public int count() {
+            return (length + size - 1) / size;
+        }
+
+        public int size(int group) {
+            return Math.min(size, length - Objects.checkIndex(group, count()) * size);
+        }
+
+        public long get(int group, int index) {
+            return values[group * size + Objects.checkIndex(index, size(group))];
+        }
     }
 }
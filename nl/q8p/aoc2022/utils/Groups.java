@@ -0,0 +1,49 @@
+package nl.q8p.aoc2022.utils;
+
+/**
+ * Cursor over groups of lines that are separated by a blank line, like {@code String.split("\n\n")} without the
+ * regular expression and without allocating per group or per line.
+ */
+public final class Groups {
+    private final CharSequence input;
+    private final Lines lines;
+    private final int end;
+
+    private int next;
+
+    public Groups(CharSequence input) {
+        var to = input.length();
+        while (to > 0 && input.charAt(to - 1) == '\n') {
+            to--;
+        }
+
+        this.input = input;
+        this.lines = new Lines(input);
+        this.end = to;
+        this.next = to == 0 ? 1 : 0;
+    }
+
+    public boolean next() {
+        if (next > end) {
+            return false;
+        }
+
+        var start = next;
+        var stop = start;
+        while (stop < end && !(input.charAt(stop) == '\n' && stop + 1 < end && input.charAt(stop + 1) == '\n')) {
+            stop++;
+        }
+        next = stop == end ? end + 1 : stop + 2;
+
+        lines.reset(start, stop);
+
+        return true;
+    }
+
+    /**
+     * The lines of the current group; the returned cursor is reused for every group.
+     */
+    public Lines lines() {
+        return lines;
+    }
+}
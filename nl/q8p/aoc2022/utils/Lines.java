@@ -0,0 +1,91 @@
+package nl.q8p.aoc2022.utils;
+
+/**
+ * Cursor over the lines of an input. The cursor itself is the current line: it is a reusable view on the input, so
+ * walking the lines does not allocate. Trailing empty lines are skipped, like {@code String.split("\n")} does.
+ */
+public final class Lines implements CharSequence {
+    private final CharSequence input;
+
+    private int end;
+    private int next;
+    private int start;
+    private int stop;
+
+    public Lines(CharSequence input) {
+        this.input = input;
+        reset(0, input.length());
+    }
+
+    void reset(int from, int to) {
+        while (to > from && input.charAt(to - 1) == '\n') {
+            to--;
+        }
+
+        end = to;
+        next = to == from ? to + 1 : from;
+        start = from;
+        stop = from;
+    }
+
+    public boolean next() {
+        if (next > end) {
+            return false;
+        }
+
+        start = next;
+        stop = start;
+        while (stop < end && input.charAt(stop) != '\n') {
+            stop++;
+        }
+        next = stop + 1;
+
+        return true;
+    }
+
+    public int indexOf(char c) {
+        return indexOf(c, 0);
+    }
+
+    public int indexOf(char c, int from) {
+        for (var i = start + from; i < stop; i++) {
+            if (input.charAt(i) == c) {
+                return i - start;
+            }
+        }
+
+        return -1;
+    }
+
+    public int parseInt() {
+        return parseInt(0, length());
+    }
+
+    public int parseInt(int from, int to) {
+        return Integer.parseInt(input, start + from, start + to, 10);
+    }
+
+    public long parseLong(int from, int to) {
+        return Long.parseLong(input, start + from, start + to, 10);
+    }
+
+    @Override
+    public int length() {
+        return stop - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return input.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        return input.subSequence(start + from, start + to);
+    }
+
+    @Override
+    public String toString() {
+        return input.subSequence(start, stop).toString();
+    }
+}
@@ -0,0 +1,80 @@
+package nl.q8p.aoc2022.utils;
+
+/**
+ * Extracts the integers from prose like {@code "Sensor at x=2, y=-18"} in one pass, without temporary strings. A
+ * {@code '-'} directly in front of a digit makes the number negative. At most {@code target.length} numbers are
+ * read; the count of numbers written is returned.
+ */
+public final class Numbers {
+
+    private Numbers() {
+    }
+
+    public static int ints(CharSequence input, int[] target) {
+        return ints(input, 0, input.length(), target);
+    }
+
+    public static int ints(CharSequence input, int from, int to, int[] target) {
+        var count = 0;
+        var i = from;
+
+        while (i < to && count < target.length) {
+            var negative = isNegativeSign(input, i, to);
+
+            if (negative || isDigit(input.charAt(i))) {
+                if (negative) {
+                    i++;
+                }
+
+                var value = 0;
+                while (i < to && isDigit(input.charAt(i))) {
+                    value = value * 10 + (input.charAt(i++) - '0');
+                }
+
+                target[count++] = negative ? -value : value;
+            } else {
+                i++;
+            }
+        }
+
+        return count;
+    }
+
+    public static int longs(CharSequence input, long[] target) {
+        return longs(input, 0, input.length(), target);
+    }
+
+    public static int longs(CharSequence input, int from, int to, long[] target) {
+        var count = 0;
+        var i = from;
+
+        while (i < to && count < target.length) {
+            var negative = isNegativeSign(input, i, to);
+
+            if (negative || isDigit(input.charAt(i))) {
+                if (negative) {
+                    i++;
+                }
+
+                var value = 0L;
+                while (i < to && isDigit(input.charAt(i))) {
+                    value = value * 10 + (input.charAt(i++) - '0');
+                }
+
+                target[count++] = negative ? -value : value;
+            } else {
+                i++;
+            }
+        }
+
+        return count;
+    }
+
+    private static boolean isNegativeSign(CharSequence input, int index, int to) {
+        return input.charAt(index) == '-' && index + 1 < to && isDigit(input.charAt(index + 1));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
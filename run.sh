@@ -1,3 +1,9 @@
-. build.sh
+if [ ! -f out/aoc2022.jar ] || [ -n "$(find nl logging.properties Manifest.txt -newer out/aoc2022.jar)" ]; then
+  . build.sh
+fi
 
-java -jar ./out/aoc2022.jar $1
+if [ -f out/aoc2022.jsa ]; then
+  java -XX:SharedArchiveFile=./out/aoc2022.jsa -jar ./out/aoc2022.jar "$@"
+else
+  java -jar ./out/aoc2022.jar "$@"
+fi